@@ -0,0 +1,317 @@
+package com.kycq.library.json.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * 为{@code @JsonBean}类生成TypeAdapter的注解处理器。
+ * <p>
+ * 字段的筛选规则与ReflectiveTypeAdapterFactory一致；生成类与Bean位于同一包内，直接读写字段。
+ * 包含私有字段、泛型或无法访问的类只输出警告，运行时仍使用反射处理。
+ * 处理器不依赖json模块，注解通过全限定名读取。
+ */
+public class JsonBeanProcessor extends AbstractProcessor {
+	static final String JSON_BEAN = "com.kycq.library.json.annotation.JsonBean";
+	private static final String JSON_NAME = "com.kycq.library.json.annotation.JsonName";
+	private static final String JSON_IGNORE = "com.kycq.library.json.annotation.JsonIgnore";
+	private static final String JSON_ADAPTER = "com.kycq.library.json.annotation.JsonAdapter";
+	/** 生成类的名称后缀，与GeneratedTypeAdapterFactory一致 */
+	static final String SUFFIX = "_JsonTypeAdapter";
+	
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(JSON_BEAN);
+	}
+	
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+	
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		TypeElement jsonBean = processingEnv.getElementUtils().getTypeElement(JSON_BEAN);
+		if (jsonBean == null) {
+			return false;
+		}
+		for (Element element : roundEnv.getElementsAnnotatedWith(jsonBean)) {
+			if (element.getKind() != ElementKind.CLASS) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+						"@JsonBean must annotate a class", element);
+				continue;
+			}
+			TypeElement typeElement = (TypeElement) element;
+			BeanInfo beanInfo = readBean(typeElement);
+			if (beanInfo == null) {
+				continue;
+			}
+			String sourceName = beanInfo.packageName.isEmpty()
+					? beanInfo.generatedName : beanInfo.packageName + "." + beanInfo.generatedName;
+			try {
+				JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(sourceName, typeElement);
+				Writer writer = sourceFile.openWriter();
+				try {
+					writer.write(new TypeAdapterWriter(beanInfo).write());
+				} finally {
+					writer.close();
+				}
+			} catch (IOException e) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+						"Unable to write " + sourceName + ": " + e.getMessage(), typeElement);
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * 读取Bean的字段信息
+	 *
+	 * @param typeElement Bean类
+	 * @return 字段信息，不支持生成时返回null
+	 */
+	private BeanInfo readBean(TypeElement typeElement) {
+		if (typeElement.getModifiers().contains(Modifier.ABSTRACT)) {
+			return skip(typeElement, "abstract class");
+		}
+		if (isPrivate(typeElement)) {
+			return skip(typeElement, "private class");
+		}
+		for (Element element = typeElement; element.getKind() != ElementKind.PACKAGE; element = element.getEnclosingElement()) {
+			if (element instanceof TypeElement) {
+				NestingKind nestingKind = ((TypeElement) element).getNestingKind();
+				if (nestingKind == NestingKind.LOCAL || nestingKind == NestingKind.ANONYMOUS
+						|| nestingKind == NestingKind.MEMBER && !element.getModifiers().contains(Modifier.STATIC)) {
+					return skip(typeElement, "inner class requires an enclosing instance");
+				}
+			}
+		}
+		
+		PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(typeElement);
+		String packageName = packageElement.getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+		
+		BeanInfo beanInfo = new BeanInfo();
+		beanInfo.typeElement = typeElement;
+		beanInfo.packageName = packageName;
+		beanInfo.className = typeElement.getQualifiedName().toString();
+		beanInfo.generatedName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+				.replace('$', '_') + SUFFIX;
+		beanInfo.hasConstructor = hasAccessibleConstructor(typeElement);
+		
+		Set<String> jsonNames = new HashSet<>();
+		Set<String> fieldNames = new HashSet<>();
+		TypeElement declaringElement = typeElement;
+		while (true) {
+			if (!declaringElement.getTypeParameters().isEmpty()) {
+				return skip(typeElement, "generic class " + declaringElement.getQualifiedName());
+			}
+			boolean isSamePackage = processingEnv.getElementUtils().getPackageOf(declaringElement).equals(packageElement);
+			for (Element element : declaringElement.getEnclosedElements()) {
+				if (element.getKind() != ElementKind.FIELD) {
+					continue;
+				}
+				Set<Modifier> modifiers = element.getModifiers();
+				if (modifiers.contains(Modifier.FINAL)
+						|| modifiers.contains(Modifier.STATIC)
+						|| modifiers.contains(Modifier.TRANSIENT)
+						|| modifiers.contains(Modifier.VOLATILE)) {
+					continue;
+				}
+				
+				FieldInfo fieldInfo = readField((VariableElement) element);
+				fieldInfo.isSelfReferable = isSelfReferable(typeElement, fieldInfo.type);
+				if (!fieldInfo.isSerialize && !fieldInfo.isDeserialize) {
+					continue;
+				}
+				if (modifiers.contains(Modifier.PRIVATE)
+						|| !isSamePackage && !(modifiers.contains(Modifier.PUBLIC)
+						&& declaringElement.getModifiers().contains(Modifier.PUBLIC))) {
+					return skip(typeElement, "field " + declaringElement.getSimpleName() + "." + fieldInfo.name + " is not accessible");
+				}
+				if (!fieldNames.add(fieldInfo.name)) {
+					// 父类字段被子类同名字段隐藏，需通过声明类访问
+					if (isPrivate(declaringElement)) {
+						return skip(typeElement, "hidden field " + declaringElement.getSimpleName() + "." + fieldInfo.name + " is not accessible");
+					}
+					fieldInfo.hiddenDeclaringClass = declaringElement.getQualifiedName().toString();
+				}
+				for (String jsonName : fieldInfo.jsonNames) {
+					if (!jsonNames.add(jsonName)) {
+						processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+								beanInfo.className + " declares multiple fields jsonName named " + jsonName, element);
+						return null;
+					}
+				}
+				beanInfo.fieldList.add(fieldInfo);
+			}
+			
+			TypeMirror superclass = declaringElement.getSuperclass();
+			if (superclass.getKind() != TypeKind.DECLARED) {
+				break;
+			}
+			declaringElement = (TypeElement) ((DeclaredType) superclass).asElement();
+			if (declaringElement.getQualifiedName().contentEquals("java.lang.Object")) {
+				break;
+			}
+		}
+		return beanInfo;
+	}
+	
+	/**
+	 * 读取字段信息
+	 *
+	 * @param element 字段
+	 * @return 字段信息
+	 */
+	private FieldInfo readField(VariableElement element) {
+		FieldInfo fieldInfo = new FieldInfo();
+		fieldInfo.name = element.getSimpleName().toString();
+		fieldInfo.type = element.asType();
+		fieldInfo.isPrimitive = fieldInfo.type.getKind().isPrimitive();
+		
+		AnnotationMirror jsonIgnore = getAnnotation(element, JSON_IGNORE);
+		fieldInfo.isSerialize = jsonIgnore == null || (Boolean) getValue(jsonIgnore, "serialize");
+		fieldInfo.isDeserialize = jsonIgnore == null || (Boolean) getValue(jsonIgnore, "deserialize");
+		
+		AnnotationMirror jsonName = getAnnotation(element, JSON_NAME);
+		if (jsonName == null) {
+			fieldInfo.jsonNames.add(fieldInfo.name);
+		} else {
+			fieldInfo.jsonNames.add((String) getValue(jsonName, "value"));
+			@SuppressWarnings("unchecked")
+			List<? extends AnnotationValue> alternates = (List<? extends AnnotationValue>) getValue(jsonName, "alternate");
+			for (AnnotationValue alternate : alternates) {
+				fieldInfo.jsonNames.add((String) alternate.getValue());
+			}
+		}
+		
+		AnnotationMirror jsonAdapter = getAnnotation(element, JSON_ADAPTER);
+		if (jsonAdapter != null) {
+			TypeMirror adapterType = (TypeMirror) getValue(jsonAdapter, "value");
+			fieldInfo.adapterClass = processingEnv.getTypeUtils().erasure(adapterType).toString();
+		}
+		return fieldInfo;
+	}
+	
+	/**
+	 * 字段是否可能引用对象本身，即字段类型为Bean的父类型或接口
+	 */
+	private boolean isSelfReferable(TypeElement typeElement, TypeMirror fieldType) {
+		if (fieldType.getKind() != TypeKind.DECLARED) {
+			return false;
+		}
+		Types typeUtils = processingEnv.getTypeUtils();
+		return ((DeclaredType) fieldType).asElement().getKind() == ElementKind.INTERFACE
+				|| typeUtils.isSubtype(typeUtils.erasure(typeElement.asType()), typeUtils.erasure(fieldType));
+	}
+	
+	/**
+	 * 类或其外部类是否为私有类
+	 */
+	private boolean isPrivate(TypeElement typeElement) {
+		for (Element element = typeElement; element.getKind() != ElementKind.PACKAGE; element = element.getEnclosingElement()) {
+			if (element.getModifiers().contains(Modifier.PRIVATE)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private boolean hasAccessibleConstructor(TypeElement typeElement) {
+		for (Element element : typeElement.getEnclosedElements()) {
+			if (element.getKind() == ElementKind.CONSTRUCTOR
+					&& ((ExecutableElement) element).getParameters().isEmpty()
+					&& !element.getModifiers().contains(Modifier.PRIVATE)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private AnnotationMirror getAnnotation(Element element, String annotationName) {
+		for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+			TypeElement annotationElement = (TypeElement) annotationMirror.getAnnotationType().asElement();
+			if (annotationElement.getQualifiedName().contentEquals(annotationName)) {
+				return annotationMirror;
+			}
+		}
+		return null;
+	}
+	
+	private Object getValue(AnnotationMirror annotationMirror, String name) {
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+				processingEnv.getElementUtils().getElementValuesWithDefaults(annotationMirror);
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(name)) {
+				return entry.getValue().getValue();
+			}
+		}
+		throw new IllegalArgumentException(name);
+	}
+	
+	private BeanInfo skip(TypeElement typeElement, String reason) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+				"TypeAdapter not generated, " + reason + "; falling back to reflection", typeElement);
+		return null;
+	}
+	
+	/**
+	 * Bean信息
+	 */
+	static class BeanInfo {
+		TypeElement typeElement;
+		String packageName;
+		/** Bean的全限定名 */
+		String className;
+		/** 生成类的简单名称 */
+		String generatedName;
+		/** 是否存在可直接调用的无参构造方法 */
+		boolean hasConstructor;
+		List<FieldInfo> fieldList = new ArrayList<>();
+	}
+	
+	/**
+	 * 字段信息
+	 */
+	static class FieldInfo {
+		String name;
+		TypeMirror type;
+		boolean isPrimitive;
+		boolean isSerialize;
+		boolean isDeserialize;
+		/** 字段值是否可能为对象本身 */
+		boolean isSelfReferable;
+		/** 键名，第一个为主键名，其余为备用键名；与反射一致，输出时每个键名都会输出 */
+		List<String> jsonNames = new ArrayList<>();
+		/** JsonAdapter注解指定的适配器类 */
+		String adapterClass;
+		/** 字段被子类同名字段隐藏时为其声明类的全限定名，否则为null */
+		String hiddenDeclaringClass;
+	}
+}
@@ -0,0 +1,328 @@
+package com.kycq.library.json.compiler;
+
+import com.kycq.library.json.compiler.JsonBeanProcessor.BeanInfo;
+import com.kycq.library.json.compiler.JsonBeanProcessor.FieldInfo;
+
+import java.util.List;
+
+import javax.lang.model.type.TypeKind;
+
+/**
+ * 输出生成的TypeAdapter源码。
+ */
+class TypeAdapterWriter {
+	private final BeanInfo beanInfo;
+	private final StringBuilder builder = new StringBuilder();
+	private int indent;
+	
+	TypeAdapterWriter(BeanInfo beanInfo) {
+		this.beanInfo = beanInfo;
+	}
+	
+	/**
+	 * 生成源码
+	 *
+	 * @return 源码
+	 */
+	String write() {
+		String className = beanInfo.className;
+		String generatedName = beanInfo.generatedName;
+		List<FieldInfo> fieldList = beanInfo.fieldList;
+		
+		if (!beanInfo.packageName.isEmpty()) {
+			line("package " + beanInfo.packageName + ";");
+			line("");
+		}
+		line("import com.kycq.library.json.Json;");
+		line("import com.kycq.library.json.JsonException;");
+		line("import com.kycq.library.json.JsonLog;");
+		line("import com.kycq.library.json.adapter.GeneratedTypeAdapter;");
+		line("import com.kycq.library.json.adapter.TypeAdapter;");
+		line("import com.kycq.library.json.adapter.TypeAdapterFactory;");
+		if (!beanInfo.hasConstructor) {
+			line("import com.kycq.library.json.creator.ObjectConstructor;");
+		}
+		line("import com.kycq.library.json.reflect.TypeToken;");
+		line("import com.kycq.library.json.stream.JsonEncodedName;");
+		line("import com.kycq.library.json.stream.JsonNameTable;");
+		line("import com.kycq.library.json.stream.JsonReader;");
+		line("import com.kycq.library.json.stream.JsonToken;");
+		line("import com.kycq.library.json.stream.JsonWriter;");
+		line("");
+		line("/**");
+		line(" * {@link " + className + "}的TypeAdapter，由JsonBeanProcessor生成，请勿修改。");
+		line(" */");
+		line("@SuppressWarnings(\"unchecked\")");
+		open("public final class " + generatedName + " extends GeneratedTypeAdapter<" + className + ">");
+		open("public static final TypeAdapterFactory FACTORY = new TypeAdapterFactory()");
+		line("@Override");
+		open("public <T> TypeAdapter<T> create(Json json, TypeToken<T> typeToken)");
+		line("return typeToken.getType() == " + className + ".class ? (TypeAdapter<T>) new " + generatedName + "(json) : null;");
+		close();
+		indent--;
+		line("};");
+		line("");
+		
+		// 键名
+		line("private static final String TAG = " + generatedName + ".class.getName();");
+		StringBuilder names = new StringBuilder();
+		for (FieldInfo fieldInfo : fieldList) {
+			if (!fieldInfo.isDeserialize) {
+				continue;
+			}
+			for (String jsonName : fieldInfo.jsonNames) {
+				names.append(names.length() == 0 ? "" : ", ").append(literal(jsonName));
+			}
+		}
+		line("private static final JsonNameTable NAME_TABLE = new JsonNameTable(" + names + ");");
+		for (int index = 0; index < fieldList.size(); index++) {
+			FieldInfo fieldInfo = fieldList.get(index);
+			if (!fieldInfo.isSerialize) {
+				continue;
+			}
+			for (int nameIndex = 0; nameIndex < fieldInfo.jsonNames.size(); nameIndex++) {
+				line("private static final JsonEncodedName NAME_" + index + "_" + nameIndex
+						+ " = new JsonEncodedName(" + literal(fieldInfo.jsonNames.get(nameIndex)) + ");");
+			}
+		}
+		line("");
+		
+		// 构造方法
+		line("private final JsonLog jsonLog;");
+		if (!beanInfo.hasConstructor) {
+			line("private final ObjectConstructor<" + className + "> constructor;");
+		}
+		for (int index = 0; index < fieldList.size(); index++) {
+			line("private final TypeAdapter<Object> adapter" + index + ";");
+		}
+		line("");
+		open("private " + generatedName + "(Json json)");
+		line("jsonLog = json.getJsonLog();");
+		if (!beanInfo.hasConstructor) {
+			line("constructor = json.getConstructorCreator().get(TypeToken.get(" + className + ".class));");
+		}
+		for (int index = 0; index < fieldList.size(); index++) {
+			FieldInfo fieldInfo = fieldList.get(index);
+			if (fieldInfo.adapterClass != null) {
+				line("adapter" + index + " = (TypeAdapter<Object>) (TypeAdapter<?>) json.getConstructorCreator()"
+						+ ".get(TypeToken.get(" + fieldInfo.adapterClass + ".class)).construct();");
+			} else {
+				line("adapter" + index + " = (TypeAdapter<Object>) (TypeAdapter<?>) json.getAdapter("
+						+ typeToken(fieldInfo) + ");");
+			}
+		}
+		close();
+		line("");
+		
+		writeRead();
+		line("");
+		writeWrite();
+		close();
+		return builder.toString();
+	}
+	
+	private void writeRead() {
+		String className = beanInfo.className;
+		List<FieldInfo> fieldList = beanInfo.fieldList;
+		
+		line("@Override");
+		open("public " + className + " read(JsonReader jsonReader) throws JsonException");
+		line("JsonToken jsonToken = jsonReader.next();");
+		open("if (jsonToken != JsonToken.BEGIN_OBJECT)");
+		open("if (jsonLog.isLoggable(JsonLog.WARNING))");
+		line("jsonLog.w(TAG, \"Expected a BEGIN_OBJECT, but was \" + jsonToken");
+		line("\t\t+ \", skipValue \" + jsonReader.getCurrentPath());");
+		close();
+		line("jsonReader.skipValue();");
+		line("return null;");
+		close();
+		line("");
+		line(className + " instance = " + (beanInfo.hasConstructor ? "new " + className + "()" : "constructor.construct()") + ";");
+		line("jsonReader.beginObject();");
+		open("while (jsonReader.hasNext())");
+		open("switch (jsonReader.nextName(NAME_TABLE))");
+		int nameIndex = 0;
+		for (int index = 0; index < fieldList.size(); index++) {
+			FieldInfo fieldInfo = fieldList.get(index);
+			if (!fieldInfo.isDeserialize) {
+				continue;
+			}
+			for (int count = 0; count < fieldInfo.jsonNames.size(); count++) {
+				line("case " + nameIndex++ + ":");
+			}
+			indent++;
+			open("try");
+			line("Object value = adapter" + index + ".read(jsonReader);");
+			if (fieldInfo.isPrimitive) {
+				open("if (value != null)");
+				line(field("instance", fieldInfo) + " = " + unbox(fieldInfo) + ";");
+				close();
+			} else {
+				line(field("instance", fieldInfo) + " = (" + fieldInfo.type + ") value;");
+			}
+			indent--;
+			open("} catch (Exception e)");
+			open("if (jsonLog.isLoggable(JsonLog.ERROR))");
+			line("jsonLog.e(TAG, \"read \" + instance.getClass() + \"'s field \" + "
+					+ literal(fieldInfo.jsonNames.get(0)) + " + \", Error Message: \" + e.getMessage());");
+			close();
+			close();
+			line("break;");
+			indent--;
+		}
+		line("default:");
+		indent++;
+		line("jsonReader.skipValue();");
+		line("break;");
+		indent--;
+		close();
+		close();
+		line("jsonReader.endObject();");
+		line("return instance;");
+		close();
+	}
+	
+	private void writeWrite() {
+		List<FieldInfo> fieldList = beanInfo.fieldList;
+		
+		line("@Override");
+		open("public void write(JsonWriter jsonWriter, " + beanInfo.className + " value) throws JsonException");
+		open("if (value == null)");
+		line("jsonWriter.valueNull();");
+		line("return;");
+		close();
+		line("");
+		line("jsonWriter.beginObject();");
+		for (int index = 0; index < fieldList.size(); index++) {
+			FieldInfo fieldInfo = fieldList.get(index);
+			if (!fieldInfo.isSerialize) {
+				continue;
+			}
+			if (fieldInfo.isSelfReferable) {
+				// 与反射一致，自引用字段不输出
+				open("if ((Object) " + field("value", fieldInfo) + " != value)");
+			}
+			// 与反射一致，主键名及备用键名各输出一次
+			for (int nameIndex = 0; nameIndex < fieldInfo.jsonNames.size(); nameIndex++) {
+				line("jsonWriter.rawName(NAME_" + index + "_" + nameIndex + ");");
+				open("try");
+				line("adapter" + index + ".write(jsonWriter, " + field("value", fieldInfo) + ");");
+				indent--;
+				open("} catch (Exception e)");
+				open("if (jsonLog.isLoggable(JsonLog.ERROR))");
+				line("jsonLog.e(TAG, \"write \" + value.getClass() + \"'s field \" + "
+						+ literal(fieldInfo.jsonNames.get(nameIndex)) + " + \", Error Message: \" + e.getMessage());");
+				close();
+				close();
+			}
+			if (fieldInfo.isSelfReferable) {
+				close();
+			}
+		}
+		line("jsonWriter.endObject();");
+		close();
+	}
+	
+	/**
+	 * 字段类型的TypeToken表达式，泛型类型使用匿名子类保留类型参数
+	 */
+	private String typeToken(FieldInfo fieldInfo) {
+		String type = fieldInfo.type.toString();
+		if (type.indexOf('<') == -1) {
+			return "TypeToken.get(" + type + ".class)";
+		}
+		return "new TypeToken<" + type + ">() {}";
+	}
+	
+	/**
+	 * 字段访问表达式，被子类同名字段隐藏的父类字段需转换为声明类后访问
+	 */
+	private String field(String target, FieldInfo fieldInfo) {
+		if (fieldInfo.hiddenDeclaringClass == null) {
+			return target + "." + fieldInfo.name;
+		}
+		return "((" + fieldInfo.hiddenDeclaringClass + ") " + target + ")." + fieldInfo.name;
+	}
+	
+	/**
+	 * 基本类型字段的拆箱表达式
+	 */
+	private String unbox(FieldInfo fieldInfo) {
+		TypeKind kind = fieldInfo.type.getKind();
+		switch (kind) {
+			case BOOLEAN:
+				return "(Boolean) value";
+			case CHAR:
+				return "(Character) value";
+			default:
+				return "((Number) value)." + fieldInfo.type + "Value()";
+		}
+	}
+	
+	/**
+	 * 转换为Java字符串字面量
+	 */
+	private static String literal(String value) {
+		StringBuilder literal = new StringBuilder("\"");
+		for (int index = 0; index < value.length(); index++) {
+			char c = value.charAt(index);
+			switch (c) {
+				case '"':
+				case '\\':
+					literal.append('\\').append(c);
+					break;
+				case '\b':
+					literal.append("\\b");
+					break;
+				case '\t':
+					literal.append("\\t");
+					break;
+				case '\n':
+					literal.append("\\n");
+					break;
+				case '\f':
+					literal.append("\\f");
+					break;
+				case '\r':
+					literal.append("\\r");
+					break;
+				default:
+					// Unicode转义在词法分析前就会被还原，控制字符只能使用八进制转义
+					if (c < 0x20) {
+						literal.append(String.format("\\%03o", (int) c));
+					} else if (c > 0x7e) {
+						literal.append(String.format("\\u%04x", (int) c));
+					} else {
+						literal.append(c);
+					}
+					break;
+			}
+		}
+		return literal.append('"').toString();
+	}
+	
+	private void open(String statement) {
+		line(statement + " {");
+		indent++;
+	}
+	
+	private void close() {
+		indent--;
+		line("}");
+	}
+	
+	private void line(String line) {
+		if (!line.isEmpty()) {
+			builder.append(tabs());
+		}
+		builder.append(line).append('\n');
+	}
+	
+	private String tabs() {
+		StringBuilder tabs = new StringBuilder();
+		for (int index = 0; index < indent; index++) {
+			tabs.append('\t');
+		}
+		return tabs.toString();
+	}
+}
@@ -3,9 +3,11 @@ package com.kycq.library.json;
 import com.kycq.library.json.adapter.ArrayTypeAdapterFactory;
 import com.kycq.library.json.adapter.CollectionTypeAdapterFactory;
 import com.kycq.library.json.adapter.EnumTypeAdapterFactory;
+import com.kycq.library.json.adapter.GeneratedTypeAdapterFactory;
 import com.kycq.library.json.adapter.JsonElementAdapterFactory;
 import com.kycq.library.json.adapter.MapTypeAdapterFactory;
 import com.kycq.library.json.adapter.ObjectTypeAdapterFactory;
+import com.kycq.library.json.adapter.RawTypeAdapterFactory;
 import com.kycq.library.json.adapter.ReflectiveTypeAdapterFactory;
 import com.kycq.library.json.adapter.TypeAdapter;
 import com.kycq.library.json.adapter.TypeAdapterFactory;
@@ -36,26 +38,57 @@ import com.kycq.library.json.reflect.TypeToken;
 import com.kycq.library.json.stream.JsonReader;
 import com.kycq.library.json.stream.JsonWriter;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
-import java.io.StringWriter;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 @SuppressWarnings("unchecked")
 public class Json {
 	private static final TypeToken<?> NULL_KEY_SURROGATE = TypeToken.get(Object.class);
 	
 	private final ThreadLocal<Map<TypeToken<?>, FutureTypeAdapter<?>>> calls = new ThreadLocal<>();
-	private final Map<TypeToken<?>, TypeAdapter<?>> typeTokenCache = new ConcurrentHashMap<>();
+	/** 线程内复用的读写器 */
+	private final ThreadLocal<StreamPool> streamPool = new ThreadLocal<>();
+	/** 已创建的适配器，多个线程同时创建同一类型时以先写入的为准 */
+	private final ConcurrentMap<TypeToken<?>, TypeAdapter<?>> typeTokenCache = new ConcurrentHashMap<>();
+	/** 按Class缓存的适配器，Class按引用比较，查找时不创建TypeToken */
+	private final ConcurrentMap<Class<?>, TypeAdapter<?>> classCache = new ConcurrentHashMap<>();
 	
 	private final List<TypeAdapterFactory> adapterFactoryList;
+	/** 按原始类型索引的工厂，保持注册顺序，包含未声明原始类型的工厂 */
+	private final Map<Class<?>, List<TypeAdapterFactory>> rawTypeFactoryMap;
+	/** 未声明原始类型的工厂 */
+	private final List<TypeAdapterFactory> predicateFactoryList;
 	
 	private ConstructorCreator constructorCreator;
+	/** 日志输出 */
+	private final JsonLog jsonLog = new JsonLog();
+	
+	/** 是否在线程内复用读写器 */
+	private volatile boolean isStreamPoolEnabled = true;
+	/** 输出缩进，空字符串表示紧凑输出 */
+	private volatile String indent = "";
+	/** 字符串转义模式 */
+	private volatile int escapeMode = JsonWriter.ESCAPE_HTML_SAFE;
 	
 	public Json() {
 		this(Collections.EMPTY_LIST, Collections.EMPTY_MAP);
@@ -111,35 +144,138 @@ public class Json {
 		// this.jsonAdapterFactory = new JsonAdapterAnnotationTypeAdapterFactory(constructorConstructor);
 		// adapterFactoryList.add(jsonAdapterFactory);
 		adapterFactoryList.add(EnumTypeAdapterFactory.FACTORY);
+		adapterFactoryList.add(GeneratedTypeAdapterFactory.FACTORY);
 		adapterFactoryList.add(new ReflectiveTypeAdapterFactory());
 		
 		this.adapterFactoryList = Collections.unmodifiableList(adapterFactoryList);
+		// 按原始类型索引工厂，未声明原始类型的工厂仍按注册顺序逐个调用
+		this.rawTypeFactoryMap = new HashMap<>();
+		this.predicateFactoryList = new ArrayList<>();
+		for (TypeAdapterFactory factory : adapterFactoryList) {
+			if (factory instanceof RawTypeAdapterFactory) {
+				for (Class<?> rawType : ((RawTypeAdapterFactory) factory).getRawTypes()) {
+					this.rawTypeFactoryMap.put(rawType, null);
+				}
+			} else {
+				this.predicateFactoryList.add(factory);
+			}
+		}
+		for (Map.Entry<Class<?>, List<TypeAdapterFactory>> entry : this.rawTypeFactoryMap.entrySet()) {
+			List<TypeAdapterFactory> factoryList = new ArrayList<>();
+			for (TypeAdapterFactory factory : adapterFactoryList) {
+				if (!(factory instanceof RawTypeAdapterFactory)
+						|| Arrays.asList(((RawTypeAdapterFactory) factory).getRawTypes()).contains(entry.getKey())) {
+					factoryList.add(factory);
+				}
+			}
+			entry.setValue(factoryList);
+		}
 		
 		this.constructorCreator = new ConstructorCreator(Collections.unmodifiableMap(instanceCreators));
 	}
 	
 	public <T> T fromJson(String jsonStr, Class<T> clazz) throws JsonException {
-		return fromJson(new JsonReader(jsonStr), TypeToken.get(clazz));
+		return fromJson(jsonStr, TypeToken.get(clazz));
 	}
 	
 	public <T> T fromJson(String jsonStr, Type type) throws JsonException {
-		return (T) fromJson(new JsonReader(jsonStr), TypeToken.get(type));
+		return (T) fromJson(jsonStr, TypeToken.get(type));
 	}
 	
 	public <T> T fromJson(String jsonStr, TypeToken<T> typeToken) throws JsonException {
-		return fromJson(new JsonReader(jsonStr), typeToken);
+		StreamPool pool = obtainReaderPool();
+		if (pool == null) {
+			return fromJson(new JsonReader(jsonStr), typeToken);
+		}
+		try {
+			pool.jsonReader.reset(jsonStr);
+			return fromJson(pool.jsonReader, typeToken);
+		} finally {
+			pool.releaseReader();
+		}
+	}
+	
+	public <T> T fromJson(byte[] bytes, Class<T> clazz) throws JsonException {
+		return fromJson(bytes, TypeToken.get(clazz));
+	}
+	
+	public <T> T fromJson(byte[] bytes, Type type) throws JsonException {
+		return (T) fromJson(bytes, TypeToken.get(type));
+	}
+	
+	public <T> T fromJson(byte[] bytes, TypeToken<T> typeToken) throws JsonException {
+		StreamPool pool = obtainReaderPool();
+		if (pool == null) {
+			return fromJson(new JsonReader(bytes), typeToken);
+		}
+		try {
+			pool.jsonReader.reset(bytes);
+			return fromJson(pool.jsonReader, typeToken);
+		} finally {
+			pool.releaseReader();
+		}
+	}
+	
+	public <T> T fromJson(InputStream inputStream, Class<T> clazz) throws JsonException {
+		return fromJson(inputStream, TypeToken.get(clazz));
+	}
+	
+	public <T> T fromJson(InputStream inputStream, Type type) throws JsonException {
+		return (T) fromJson(inputStream, TypeToken.get(type));
+	}
+	
+	public <T> T fromJson(InputStream inputStream, TypeToken<T> typeToken) throws JsonException {
+		StreamPool pool = obtainReaderPool();
+		if (pool == null) {
+			return fromJson(new JsonReader(inputStream), typeToken);
+		}
+		try {
+			pool.jsonReader.reset(inputStream);
+			return fromJson(pool.jsonReader, typeToken);
+		} finally {
+			pool.releaseReader();
+		}
+	}
+	
+	public <T> T fromJson(File file, Class<T> clazz) throws JsonException {
+		return fromJson(file, TypeToken.get(clazz));
+	}
+	
+	public <T> T fromJson(File file, Type type) throws JsonException {
+		return (T) fromJson(file, TypeToken.get(type));
+	}
+	
+	public <T> T fromJson(File file, TypeToken<T> typeToken) throws JsonException {
+		JsonReader jsonReader = new JsonReader(file);
+		try {
+			return fromJson(jsonReader, typeToken);
+		} finally {
+			try {
+				jsonReader.close();
+			} catch (IOException ignored) {
+			}
+		}
 	}
 	
 	public <T> T fromJson(Reader reader, Class<T> clazz) throws JsonException {
-		return fromJson(new JsonReader(reader), TypeToken.get(clazz));
+		return fromJson(reader, TypeToken.get(clazz));
 	}
 	
 	public <T> T fromJson(Reader reader, Type type) throws JsonException {
-		return (T) fromJson(new JsonReader(reader), TypeToken.get(type));
+		return (T) fromJson(reader, TypeToken.get(type));
 	}
 	
 	public <T> T fromJson(Reader reader, TypeToken<T> typeToken) throws JsonException {
-		return fromJson(new JsonReader(reader), typeToken);
+		StreamPool pool = obtainReaderPool();
+		if (pool == null) {
+			return fromJson(new JsonReader(reader), typeToken);
+		}
+		try {
+			pool.jsonReader.reset(reader);
+			return fromJson(pool.jsonReader, typeToken);
+		} finally {
+			pool.releaseReader();
+		}
 	}
 	
 	public <T> T fromJson(JsonReader jsonReader, Class<T> clazz) throws JsonException {
@@ -156,15 +292,177 @@ public class Json {
 	}
 	
 	public String toJson(Object value) throws JsonException {
-		TypeAdapter<Object> typeAdapter = (TypeAdapter<Object>) getAdapter(TypeToken.get(value.getClass()));
-		StringWriter stringWriter = new StringWriter();
-		JsonWriter jsonWriter = new JsonWriter(stringWriter);
-		typeAdapter.write(jsonWriter, value);
-		return stringWriter.toString();
+		TypeAdapter<Object> typeAdapter = (TypeAdapter<Object>) getAdapter(value.getClass());
+		StreamPool pool = obtainWriterPool();
+		if (pool == null) {
+			JsonWriter jsonWriter = new JsonWriter();
+			jsonWriter.setIndent(this.indent);
+			jsonWriter.setEscapeMode(this.escapeMode);
+			typeAdapter.write(jsonWriter, value);
+			return jsonWriter.getJsonString();
+		}
+		try {
+			pool.jsonWriter.reset();
+			pool.jsonWriter.setIndent(this.indent);
+			pool.jsonWriter.setEscapeMode(this.escapeMode);
+			typeAdapter.write(pool.jsonWriter, value);
+			return pool.jsonWriter.getJsonString();
+		} finally {
+			pool.releaseWriter();
+		}
+	}
+	
+	/**
+	 * 以UTF-8编码直接输出至字节输出流，不会关闭该输出流
+	 *
+	 * @param value        对象
+	 * @param outputStream 字节输出流
+	 * @throws JsonException 错误信息
+	 */
+	public void toJson(Object value, OutputStream outputStream) throws JsonException {
+		TypeAdapter<Object> typeAdapter = (TypeAdapter<Object>) getAdapter(value.getClass());
+		StreamPool pool = obtainWriterPool();
+		if (pool == null) {
+			JsonWriter jsonWriter = new JsonWriter(outputStream);
+			jsonWriter.setIndent(this.indent);
+			jsonWriter.setEscapeMode(this.escapeMode);
+			typeAdapter.write(jsonWriter, value);
+			return;
+		}
+		try {
+			pool.jsonWriter.reset(outputStream);
+			pool.jsonWriter.setIndent(this.indent);
+			pool.jsonWriter.setEscapeMode(this.escapeMode);
+			typeAdapter.write(pool.jsonWriter, value);
+		} finally {
+			pool.releaseWriter();
+		}
+	}
+	
+	/**
+	 * 输出UTF-8编码的JSON字节数据
+	 *
+	 * @param value 对象
+	 * @return UTF-8字节数据
+	 * @throws JsonException 错误信息
+	 */
+	public byte[] toJsonBytes(Object value) throws JsonException {
+		TypeAdapter<Object> typeAdapter = (TypeAdapter<Object>) getAdapter(value.getClass());
+		StreamPool pool = obtainWriterPool();
+		if (pool == null) {
+			JsonWriter jsonWriter = new JsonWriter();
+			jsonWriter.setIndent(this.indent);
+			jsonWriter.setEscapeMode(this.escapeMode);
+			typeAdapter.write(jsonWriter, value);
+			return jsonWriter.getJsonBytes();
+		}
+		try {
+			pool.jsonWriter.reset();
+			pool.jsonWriter.setIndent(this.indent);
+			pool.jsonWriter.setEscapeMode(this.escapeMode);
+			typeAdapter.write(pool.jsonWriter, value);
+			return pool.jsonWriter.getJsonBytes();
+		} finally {
+			pool.releaseWriter();
+		}
+	}
+	
+	/**
+	 * 设置输出缩进，默认紧凑输出
+	 *
+	 * @param indent 缩进字符串，只能包含空格及制表符，例如"  "，空字符串表示紧凑输出
+	 */
+	public void setIndent(String indent) {
+		if (indent == null) {
+			throw new NullPointerException("indent can't be null");
+		}
+		for (int index = 0, length = indent.length(); index < length; index++) {
+			char c = indent.charAt(index);
+			if (c != ' ' && c != '\t') {
+				throw new IllegalArgumentException("indent must be spaces or tabs: " + indent);
+			}
+		}
+		this.indent = indent;
+	}
+	
+	/**
+	 * 设置字符串转义模式，默认HTML安全转义
+	 *
+	 * @param escapeMode {@link JsonWriter#ESCAPE_STRICT}、{@link JsonWriter#ESCAPE_HTML_SAFE}或{@link JsonWriter#ESCAPE_ASCII}
+	 */
+	public void setEscapeMode(int escapeMode) {
+		if (escapeMode != JsonWriter.ESCAPE_STRICT
+				&& escapeMode != JsonWriter.ESCAPE_HTML_SAFE
+				&& escapeMode != JsonWriter.ESCAPE_ASCII) {
+			throw new IllegalArgumentException("unknown escape mode: " + escapeMode);
+		}
+		this.escapeMode = escapeMode;
+	}
+	
+	/**
+	 * 设置是否在线程内复用读写器，默认复用
+	 *
+	 * @param isStreamPoolEnabled true 复用
+	 */
+	public void setStreamPoolEnabled(boolean isStreamPoolEnabled) {
+		this.isStreamPoolEnabled = isStreamPoolEnabled;
+	}
+	
+	/**
+	 * 获取线程内空闲的读取器
+	 *
+	 * @return 读写器缓存，为null时不复用或读取器正在使用（例如在适配器中嵌套调用）
+	 */
+	private StreamPool obtainReaderPool() {
+		if (!this.isStreamPoolEnabled) {
+			return null;
+		}
+		StreamPool pool = this.streamPool.get();
+		if (pool == null) {
+			pool = new StreamPool();
+			this.streamPool.set(pool);
+		} else if (pool.isReaderInUse) {
+			return null;
+		}
+		pool.isReaderInUse = true;
+		return pool;
+	}
+	
+	/**
+	 * 获取线程内空闲的写入器
+	 *
+	 * @return 读写器缓存，为null时不复用或写入器正在使用（例如在适配器中嵌套调用）
+	 */
+	private StreamPool obtainWriterPool() {
+		if (!this.isStreamPoolEnabled) {
+			return null;
+		}
+		StreamPool pool = this.streamPool.get();
+		if (pool == null) {
+			pool = new StreamPool();
+			this.streamPool.set(pool);
+		} else if (pool.isWriterInUse) {
+			return null;
+		}
+		pool.isWriterInUse = true;
+		return pool;
 	}
 	
 	public <T> TypeAdapter<T> getAdapter(Class<T> type) {
-		return getAdapter(TypeToken.get(type));
+		TypeAdapter<?> cached = this.classCache.get(type);
+		if (cached != null) {
+			return (TypeAdapter<T>) cached;
+		}
+		
+		TypeAdapter<T> typeAdapter = getAdapter(TypeToken.get(type));
+		// 嵌套创建时返回的FutureTypeAdapter不缓存
+		if (!(typeAdapter instanceof FutureTypeAdapter)) {
+			cached = this.classCache.putIfAbsent(type, typeAdapter);
+			if (cached != null) {
+				return (TypeAdapter<T>) cached;
+			}
+		}
+		return typeAdapter;
 	}
 	
 	public <T> TypeAdapter<T> getAdapter(TypeToken<T> typeToken) {
@@ -190,11 +488,19 @@ public class Json {
 			FutureTypeAdapter<T> call = new FutureTypeAdapter<T>();
 			threadCalls.put(typeToken, call);
 			
-			for (TypeAdapterFactory factory : this.adapterFactoryList) {
+			List<TypeAdapterFactory> factoryList = this.rawTypeFactoryMap.get(typeToken.getRawType());
+			if (factoryList == null) {
+				factoryList = this.predicateFactoryList;
+			}
+			for (TypeAdapterFactory factory : factoryList) {
 				TypeAdapter<T> candidate = factory.create(this, typeToken);
 				if (candidate != null) {
+					// 其他线程已创建时使用已缓存的适配器，保证同一类型只有一个实例
+					TypeAdapter<?> existing = this.typeTokenCache.putIfAbsent(typeToken, candidate);
+					if (existing != null) {
+						candidate = (TypeAdapter<T>) existing;
+					}
 					call.setDelegate(candidate);
-					this.typeTokenCache.put(typeToken, candidate);
 					return candidate;
 				}
 			}
@@ -208,10 +514,119 @@ public class Json {
 		}
 	}
 	
+	/**
+	 * 预先创建适配器，包括字段适配器、构造方法及字段访问权限，避免首次读写时创建
+	 *
+	 * @param types 类型，重复的类型只创建一次
+	 * @return 各类型创建适配器的耗时，单位纳秒，按类型首次出现的顺序排列
+	 */
+	public Map<Type, Long> prepare(Type... types) {
+		Map<Type, Long> elapsedMap = new LinkedHashMap<>();
+		for (Type type : types) {
+			if (!elapsedMap.containsKey(type)) {
+				elapsedMap.put(type, prepareAdapter(type));
+			}
+		}
+		return elapsedMap;
+	}
+	
+	/**
+	 * 在线程池中并行预先创建适配器，等待全部完成后返回。
+	 * <p>
+	 * 多个类型共用的嵌套类型可能被多个线程同时创建，最终只保留一个实例，耗时包含重复创建的部分。
+	 *
+	 * @param types           类型，重复的类型只创建一次
+	 * @param executorService 线程池，为null时在当前线程创建
+	 * @return 各类型创建适配器的耗时，单位纳秒，按类型首次出现的顺序排列
+	 * @throws InterruptedException 等待时被中断
+	 */
+	public Map<Type, Long> prepareAll(Collection<? extends Type> types,
+	                                  ExecutorService executorService) throws InterruptedException {
+		if (executorService == null) {
+			return prepare(types.toArray(new Type[types.size()]));
+		}
+		
+		Set<Type> typeSet = new LinkedHashSet<>(types);
+		List<Callable<Long>> taskList = new ArrayList<>(typeSet.size());
+		for (final Type type : typeSet) {
+			taskList.add(new Callable<Long>() {
+				@Override
+				public Long call() {
+					return prepareAdapter(type);
+				}
+			});
+		}
+		List<Future<Long>> futureList = executorService.invokeAll(taskList);
+		
+		Map<Type, Long> elapsedMap = new LinkedHashMap<>();
+		int index = 0;
+		for (Type type : typeSet) {
+			try {
+				elapsedMap.put(type, futureList.get(index++).get());
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new RuntimeException(cause);
+			}
+		}
+		return elapsedMap;
+	}
+	
+	/**
+	 * 创建适配器
+	 *
+	 * @param type 类型
+	 * @return 耗时，单位纳秒
+	 */
+	private long prepareAdapter(Type type) {
+		long startTime = System.nanoTime();
+		if (type instanceof Class) {
+			getAdapter((Class<?>) type);
+		} else {
+			getAdapter(TypeToken.get(type));
+		}
+		return System.nanoTime() - startTime;
+	}
+	
 	public ConstructorCreator getConstructorCreator() {
 		return this.constructorCreator;
 	}
 	
+	/**
+	 * 获取日志输出，用于设置调试级别及输出方式
+	 *
+	 * @return 日志输出
+	 */
+	public JsonLog getJsonLog() {
+		return this.jsonLog;
+	}
+	
+	/**
+	 * 线程内复用的读写器
+	 */
+	private static class StreamPool {
+		final JsonReader jsonReader = new JsonReader("");
+		final JsonWriter jsonWriter = new JsonWriter();
+		boolean isReaderInUse;
+		boolean isWriterInUse;
+		
+		void releaseReader() {
+			// 释放对数据的引用
+			this.jsonReader.reset("");
+			this.isReaderInUse = false;
+		}
+		
+		void releaseWriter() {
+			// 释放过大的缓存区
+			this.jsonWriter.reset();
+			this.isWriterInUse = false;
+		}
+	}
+	
 	private static class FutureTypeAdapter<T> extends TypeAdapter<T> {
 		private TypeAdapter<T> delegate;
 		
@@ -3,7 +3,6 @@ package com.kycq.library.json;
 import com.kycq.library.json.adapter.JsonElementAdapter;
 import com.kycq.library.json.stream.JsonWriter;
 
-import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
@@ -107,12 +106,11 @@ public abstract class JsonElement {
 	
 	@Override
 	public String toString() {
-		StringWriter stringWriter = new StringWriter();
+		JsonWriter jsonWriter = new JsonWriter();
 		try {
-			JsonWriter jsonWriter = new JsonWriter(stringWriter);
 			JsonElementAdapter.ADAPTER.write(jsonWriter, this);
 		} catch (Exception ignored) {
 		}
-		return stringWriter.toString();
+		return jsonWriter.getJsonString();
 	}
 }
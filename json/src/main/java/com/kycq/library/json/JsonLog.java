@@ -1,5 +1,10 @@
 package com.kycq.library.json;
 
+/**
+ * 日志输出，每个{@link Json}实例单独配置级别及输出方式。
+ * <p>
+ * 调用方先通过{@link #isLoggable(int)}判断，再拼接日志内容，关闭日志时不产生额外开销。
+ */
 public class JsonLog {
 	/** 无提示级别 */
 	public static final int NONE = 0;
@@ -8,23 +13,78 @@ public class JsonLog {
 	/** 警告级别 */
 	public static final int WARNING = 2;
 	
+	/** 默认输出，警告输出到标准输出，错误输出到标准错误 */
+	public static final Printer SYSTEM_PRINTER = new Printer() {
+		@Override
+		public void println(int level, String tag, String msg) {
+			if (level == ERROR) {
+				System.err.println(tag + " # " + msg);
+			} else {
+				System.out.println(tag + " # " + msg);
+			}
+		}
+	};
+	
 	/** 调试级别 */
-	static volatile int DEBUG_LEVEL = WARNING;
+	private volatile int debugLevel = WARNING;
+	/** 日志输出方式 */
+	private volatile Printer printer = SYSTEM_PRINTER;
+	
+	/**
+	 * 设置调试级别，默认警告级别
+	 *
+	 * @param debugLevel {@link #NONE}、{@link #ERROR}或{@link #WARNING}
+	 */
+	public void setDebugLevel(int debugLevel) {
+		this.debugLevel = debugLevel;
+	}
 	
-	public static void setDebugLevel(int debugLevel) {
-		DEBUG_LEVEL = debugLevel;
+	/**
+	 * 设置日志输出方式，默认{@link #SYSTEM_PRINTER}
+	 *
+	 * @param printer 日志输出方式
+	 */
+	public void setPrinter(Printer printer) {
+		if (printer == null) {
+			throw new NullPointerException("printer can't be null");
+		}
+		this.printer = printer;
+	}
+	
+	/**
+	 * 是否输出该级别的日志
+	 *
+	 * @param level {@link #ERROR}或{@link #WARNING}
+	 * @return true 输出
+	 */
+	public boolean isLoggable(int level) {
+		return level != NONE && level <= this.debugLevel;
 	}
 	
-	public static void w(String tag, String msg) {
-		if (DEBUG_LEVEL >= WARNING) {
-			System.out.println(tag + " # " + msg);
+	public void w(String tag, String msg) {
+		if (isLoggable(WARNING)) {
+			this.printer.println(WARNING, tag, msg);
 		}
 	}
 	
-	public static void e(String tag, String msg) {
-		if (DEBUG_LEVEL >= ERROR) {
-			System.err.println(tag + " # " + msg);
+	public void e(String tag, String msg) {
+		if (isLoggable(ERROR)) {
+			this.printer.println(ERROR, tag, msg);
 		}
 	}
 	
+	/**
+	 * 日志输出方式
+	 */
+	public interface Printer {
+		
+		/**
+		 * 输出日志
+		 *
+		 * @param level 级别
+		 * @param tag   标签
+		 * @param msg   内容
+		 */
+		void println(int level, String tag, String msg);
+	}
 }
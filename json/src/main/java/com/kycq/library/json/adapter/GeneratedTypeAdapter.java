@@ -0,0 +1,11 @@
+package com.kycq.library.json.adapter;
+
+import com.kycq.library.json.annotation.JsonBean;
+
+/**
+ * 注解处理器为{@link JsonBean}类生成的TypeAdapter的基类。
+ * <p>
+ * 按运行时类型选择适配器时，与{@link ReflectiveTypeAdapter}同等对待，不视为用户注册的适配器。
+ */
+public abstract class GeneratedTypeAdapter<T> extends TypeAdapter<T> {
+}
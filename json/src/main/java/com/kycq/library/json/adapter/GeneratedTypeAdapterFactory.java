@@ -0,0 +1,43 @@
+package com.kycq.library.json.adapter;
+
+import com.kycq.library.json.Json;
+import com.kycq.library.json.annotation.JsonBean;
+import com.kycq.library.json.reflect.TypeToken;
+
+/**
+ * 查找注解处理器为{@link JsonBean}类生成的TypeAdapter，未生成时交由反射处理。
+ */
+public class GeneratedTypeAdapterFactory implements TypeAdapterFactory {
+	public static final GeneratedTypeAdapterFactory FACTORY = new GeneratedTypeAdapterFactory();
+	
+	/** 生成类的名称后缀 */
+	public static final String SUFFIX = "_JsonTypeAdapter";
+	
+	@Override
+	public <T> TypeAdapter<T> create(Json json, TypeToken<T> typeToken) {
+		Class<? super T> rawType = typeToken.getRawType();
+		if (typeToken.getType() != rawType || !rawType.isAnnotationPresent(JsonBean.class)) {
+			return null;
+		}
+		
+		TypeAdapterFactory generatedFactory;
+		try {
+			Class<?> generatedClass = Class.forName(getGeneratedName(rawType), true, rawType.getClassLoader());
+			generatedFactory = (TypeAdapterFactory) generatedClass.getField("FACTORY").get(null);
+		} catch (Exception ignored) {
+			// 未启用注解处理器或该类不支持生成
+			return null;
+		}
+		return generatedFactory.create(json, typeToken);
+	}
+	
+	/**
+	 * 获取生成类的名称，内部类以下划线连接外部类名
+	 *
+	 * @param clazz 类
+	 * @return 生成类的名称
+	 */
+	static String getGeneratedName(Class<?> clazz) {
+		return clazz.getName().replace('$', '_') + SUFFIX;
+	}
+}
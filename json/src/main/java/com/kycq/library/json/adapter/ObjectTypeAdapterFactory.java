@@ -3,7 +3,7 @@ package com.kycq.library.json.adapter;
 import com.kycq.library.json.Json;
 import com.kycq.library.json.reflect.TypeToken;
 
-public class ObjectTypeAdapterFactory implements TypeAdapterFactory {
+public class ObjectTypeAdapterFactory implements RawTypeAdapterFactory {
 	public static final TypeAdapterFactory FACTORY = new ObjectTypeAdapterFactory();
 	
 	@SuppressWarnings("unchecked")
@@ -14,4 +14,9 @@ public class ObjectTypeAdapterFactory implements TypeAdapterFactory {
 		}
 		return null;
 	}
+	
+	@Override
+	public Class<?>[] getRawTypes() {
+		return new Class<?>[]{Object.class};
+	}
 }
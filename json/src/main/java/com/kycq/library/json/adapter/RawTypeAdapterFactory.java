@@ -0,0 +1,16 @@
+package com.kycq.library.json.adapter;
+
+/**
+ * 只处理指定原始类型的TypeAdapterFactory。
+ * <p>
+ * Json按原始类型索引该类工厂，只有请求的原始类型为其中之一时才调用{@link #create}。
+ */
+public interface RawTypeAdapterFactory extends TypeAdapterFactory {
+	
+	/**
+	 * 获取处理的原始类型
+	 *
+	 * @return 原始类型
+	 */
+	Class<?>[] getRawTypes();
+}
@@ -3,6 +3,7 @@ package com.kycq.library.json.adapter;
 import com.kycq.library.json.JsonException;
 import com.kycq.library.json.JsonLog;
 import com.kycq.library.json.creator.ObjectConstructor;
+import com.kycq.library.json.stream.JsonNameTable;
 import com.kycq.library.json.stream.JsonReader;
 import com.kycq.library.json.stream.JsonToken;
 import com.kycq.library.json.stream.JsonWriter;
@@ -12,13 +13,29 @@ import java.util.Map;
 public class ReflectiveTypeAdapter<T> extends TypeAdapter<T> {
 	private static final String TAG = ReflectiveTypeAdapter.class.getName();
 	
+	private final JsonLog jsonLog;
 	private final ObjectConstructor<T> constructor;
-	private final Map<String, ReflectiveTypeAdapterFactory.BoundField> boundFields;
+	/** 键名表，与boundFieldArray下标一一对应 */
+	private final JsonNameTable nameTable;
+	private final ReflectiveTypeAdapterFactory.BoundField[] boundFieldArray;
+	/** 按字段声明顺序预测的下一个键名下标，跳过同一字段的备用键名 */
+	private final int[] nextIndexArray;
 	
-	ReflectiveTypeAdapter(ObjectConstructor<T> constructor,
+	ReflectiveTypeAdapter(JsonLog jsonLog,
+	                      ObjectConstructor<T> constructor,
 	                      Map<String, ReflectiveTypeAdapterFactory.BoundField> boundFields) {
+		this.jsonLog = jsonLog;
 		this.constructor = constructor;
-		this.boundFields = boundFields;
+		this.nameTable = new JsonNameTable(boundFields.keySet().toArray(new String[boundFields.size()]));
+		this.boundFieldArray = boundFields.values().toArray(new ReflectiveTypeAdapterFactory.BoundField[boundFields.size()]);
+		this.nextIndexArray = new int[boundFieldArray.length];
+		int nextIndex = boundFieldArray.length;
+		for (int index = boundFieldArray.length - 1; index >= 0; index--) {
+			nextIndexArray[index] = nextIndex;
+			if (index == 0 || boundFieldArray[index - 1].field != boundFieldArray[index].field) {
+				nextIndex = index;
+			}
+		}
 	}
 	
 	@Override
@@ -27,21 +44,28 @@ public class ReflectiveTypeAdapter<T> extends TypeAdapter<T> {
 		if (jsonToken == JsonToken.BEGIN_OBJECT) {
 			T instance = constructor.construct();
 			jsonReader.beginObject();
+			// 键名通常按字段声明顺序出现，优先比较预测的键名
+			int expectedIndex = 0;
 			while (jsonReader.hasNext()) {
-				String name = jsonReader.nextName();
-				ReflectiveTypeAdapterFactory.BoundField boundField = boundFields.get(name);
+				int index = jsonReader.nextName(nameTable, expectedIndex);
+				ReflectiveTypeAdapterFactory.BoundField boundField = index == -1 ? null : boundFieldArray[index];
 				if (boundField == null || !boundField.readField()) {
 					jsonReader.skipValue();
 				} else {
 					boundField.read(jsonReader, instance);
 				}
+				if (index != -1) {
+					expectedIndex = nextIndexArray[index];
+				}
 			}
 			jsonReader.endObject();
 			return instance;
 		}
 		
-		JsonLog.w(TAG, "Expected a BEGIN_OBJECT, but was " + jsonToken
-				+ ", skipValue " + jsonReader.getCurrentPath());
+		if (jsonLog.isLoggable(JsonLog.WARNING)) {
+			jsonLog.w(TAG, "Expected a BEGIN_OBJECT, but was " + jsonToken
+					+ ", skipValue " + jsonReader.getCurrentPath());
+		}
 		jsonReader.skipValue();
 		
 		return null;
@@ -55,9 +79,8 @@ public class ReflectiveTypeAdapter<T> extends TypeAdapter<T> {
 		}
 		
 		jsonWriter.beginObject();
-			for (ReflectiveTypeAdapterFactory.BoundField boundField : boundFields.values()) {
-				if (boundField.writeField(value)) {
-					jsonWriter.name(boundField.fieldName);
+			for (ReflectiveTypeAdapterFactory.BoundField boundField : boundFieldArray) {
+				if (boundField.writeField()) {
 					boundField.write(jsonWriter, value);
 				}
 			}
@@ -3,14 +3,21 @@ package com.kycq.library.json.adapter;
 import com.kycq.library.json.Json;
 import com.kycq.library.json.JsonException;
 import com.kycq.library.json.JsonLog;
+import com.kycq.library.json.adapter.basic.BooleanAdapter;
+import com.kycq.library.json.adapter.basic.DoubleAdapter;
+import com.kycq.library.json.adapter.basic.IntegerAdapter;
+import com.kycq.library.json.adapter.basic.LongAdapter;
 import com.kycq.library.json.annotation.JsonAdapter;
 import com.kycq.library.json.annotation.JsonIgnore;
 import com.kycq.library.json.annotation.JsonName;
 import com.kycq.library.json.creator.ObjectConstructor;
+import com.kycq.library.json.internal.FieldAccessor;
 import com.kycq.library.json.internal.Primitives;
 import com.kycq.library.json.reflect.GsonTypes;
 import com.kycq.library.json.reflect.TypeToken;
+import com.kycq.library.json.stream.JsonEncodedName;
 import com.kycq.library.json.stream.JsonReader;
+import com.kycq.library.json.stream.JsonToken;
 import com.kycq.library.json.stream.JsonWriter;
 
 import java.lang.reflect.Field;
@@ -33,7 +40,7 @@ public class ReflectiveTypeAdapterFactory implements TypeAdapterFactory {
 		}
 		
 		ObjectConstructor<T> constructor = json.getConstructorCreator().get(typeToken);
-		return new ReflectiveTypeAdapter<>(constructor, getBoundFields(json, typeToken, rawType));
+		return new ReflectiveTypeAdapter<>(json.getJsonLog(), constructor, getBoundFields(json, typeToken, rawType));
 	}
 	
 	private Map<String, BoundField> getBoundFields(Json json, TypeToken<?> typeToken, Class<?> rawType) {
@@ -64,7 +71,8 @@ public class ReflectiveTypeAdapterFactory implements TypeAdapterFactory {
 				for (int index = 0; index < fieldNameList.size(); index++) {
 					String fieldName = fieldNameList.get(index);
 					
-					BoundField boundField = new BoundField(
+					BoundField boundField = createBoundField(
+							json.getJsonLog(),
 							isPrimitive,
 							serialize, deserialize,
 							fieldName, field,
@@ -140,40 +148,89 @@ public class ReflectiveTypeAdapterFactory implements TypeAdapterFactory {
 		return (TypeAdapter<?>) json.getConstructorCreator().get(TypeToken.get(clazz)).construct();
 	}
 	
+	/**
+	 * 创建字段绑定，int、long、double、boolean字段使用默认适配器时直接读写基本类型，不装箱
+	 */
+	private BoundField createBoundField(JsonLog jsonLog,
+	                                    boolean isPrimitive,
+	                                    boolean isSerialize, boolean isDeserialize,
+	                                    String fieldName, Field field,
+	                                    TypeAdapter<?> fieldTypeAdapter) {
+		Class<?> fieldClazz = field.getType();
+		if (fieldClazz == int.class && fieldTypeAdapter == IntegerAdapter.ADAPTER) {
+			return new IntBoundField(jsonLog, isSerialize, isDeserialize, fieldName, field, fieldTypeAdapter);
+		} else if (fieldClazz == long.class && fieldTypeAdapter == LongAdapter.ADAPTER) {
+			return new LongBoundField(jsonLog, isSerialize, isDeserialize, fieldName, field, fieldTypeAdapter);
+		} else if (fieldClazz == double.class && fieldTypeAdapter == DoubleAdapter.ADAPTER) {
+			return new DoubleBoundField(jsonLog, isSerialize, isDeserialize, fieldName, field, fieldTypeAdapter);
+		} else if (fieldClazz == boolean.class && fieldTypeAdapter == BooleanAdapter.ADAPTER) {
+			return new BooleanBoundField(jsonLog, isSerialize, isDeserialize, fieldName, field, fieldTypeAdapter);
+		}
+		return new BoundField(
+				jsonLog,
+				isPrimitive,
+				isSerialize, isDeserialize,
+				fieldName, field,
+				fieldTypeAdapter
+		);
+	}
+	
 	static class BoundField {
 		private static final String TAG = BoundField.class.getName();
 		
+		JsonLog jsonLog;
 		boolean isPrimitive;
 		boolean isSerialize;
 		boolean isDeserialize;
 		
 		String fieldName;
+		/** 预先编码的键名 */
+		JsonEncodedName encodedName;
 		Field field;
+		/** 字段读写器 */
+		FieldAccessor fieldAccessor;
 		
 		TypeAdapter<?> fieldTypeAdapter;
 		
-		BoundField(boolean isPrimitive,
+		BoundField(JsonLog jsonLog,
+		           boolean isPrimitive,
 		           boolean isSerialize, boolean isDeserialize,
 		           String fieldName, Field field,
 		           TypeAdapter<?> fieldTypeAdapter) {
+			this.jsonLog = jsonLog;
 			this.isPrimitive = isPrimitive;
 			this.isSerialize = isSerialize;
 			this.isDeserialize = isDeserialize;
 			
 			this.fieldName = fieldName;
+			this.encodedName = new JsonEncodedName(fieldName);
 			this.field = field;
+			this.fieldAccessor = FieldAccessor.create(field);
 			
 			this.fieldTypeAdapter = fieldTypeAdapter;
 		}
 		
 		void read(JsonReader jsonReader, Object objectValue) throws JsonException {
 			try {
-				Object fieldValue = fieldTypeAdapter.read(jsonReader);
-				if (fieldValue != null || !isPrimitive) {
-					field.set(objectValue, fieldValue);
-				}
+				readValue(jsonReader, objectValue);
 			} catch (Exception e) {
-				JsonLog.e(TAG, "read " + objectValue.getClass() + "'s field " + fieldName + ", Error Message: " + e.getMessage());
+				if (jsonLog.isLoggable(JsonLog.ERROR)) {
+					jsonLog.e(TAG, "read " + objectValue.getClass() + "'s field " + fieldName + ", Error Message: " + e.getMessage());
+				}
+			}
+		}
+		
+		/**
+		 * 读取值并写入字段
+		 *
+		 * @param jsonReader  读取器
+		 * @param objectValue 对象
+		 * @throws Exception 错误信息
+		 */
+		void readValue(JsonReader jsonReader, Object objectValue) throws Exception {
+			Object fieldValue = fieldTypeAdapter.read(jsonReader);
+			if (fieldValue != null || !isPrimitive) {
+				fieldAccessor.set(objectValue, fieldValue);
 			}
 		}
 		
@@ -181,26 +238,218 @@ public class ReflectiveTypeAdapterFactory implements TypeAdapterFactory {
 			return isDeserialize;
 		}
 		
+		/**
+		 * 写入键名及字段值，自引用字段不输出
+		 *
+		 * @param jsonWriter  输出器
+		 * @param objectValue 对象
+		 * @throws JsonException 错误信息
+		 */
 		@SuppressWarnings("unchecked")
 		void write(JsonWriter jsonWriter, Object objectValue) throws JsonException {
+			// 只读取一次字段值，同时用于自引用检查；读取失败时不输出键名，只跳过该字段
+			Object fieldValue;
+			try {
+				fieldValue = fieldAccessor.get(objectValue);
+			} catch (Exception e) {
+				logWriteError(objectValue, e);
+				return;
+			}
+			if (fieldValue == objectValue) {
+				return;
+			}
+			jsonWriter.rawName(encodedName);
 			try {
-				Object fieldValue = field.get(objectValue);
 				((TypeAdapter<Object>) fieldTypeAdapter).write(jsonWriter, fieldValue);
 			} catch (Exception e) {
-				JsonLog.e(TAG, "write " + objectValue.getClass() + "'s field " + fieldName + ", Error Message: " + e.getMessage());
+				logWriteError(objectValue, e);
 			}
 		}
 		
-		boolean writeField(Object value) {
-			if (!isSerialize) {
-				return false;
+		/**
+		 * 输出字段写入失败的日志，失败的字段不影响其他字段
+		 *
+		 * @param objectValue 对象
+		 * @param e           错误信息
+		 */
+		void logWriteError(Object objectValue, Exception e) {
+			if (jsonLog.isLoggable(JsonLog.ERROR)) {
+				jsonLog.e(TAG, "write " + objectValue.getClass() + "'s field " + fieldName + ", Error Message: " + e.getMessage());
 			}
+		}
+		
+		boolean writeField() {
+			return isSerialize;
+		}
+	}
+	
+	/**
+	 * int字段，数值直接读写，不装箱
+	 */
+	static final class IntBoundField extends BoundField {
+		
+		IntBoundField(JsonLog jsonLog,
+		              boolean isSerialize, boolean isDeserialize,
+		              String fieldName, Field field,
+		              TypeAdapter<?> fieldTypeAdapter) {
+			super(jsonLog, true, isSerialize, isDeserialize, fieldName, field, fieldTypeAdapter);
+		}
+		
+		@Override
+		void readValue(JsonReader jsonReader, Object objectValue) throws Exception {
+			if (jsonReader.next() != JsonToken.NUMBER) {
+				// null及字符串等由IntegerAdapter处理
+				super.readValue(jsonReader, objectValue);
+				return;
+			}
+			int fieldValue;
 			try {
-				Object fieldValue = field.get(value);
-				return fieldValue != value;
-			} catch (IllegalAccessException ignored) {
+				fieldValue = jsonReader.nextInt();
+			} catch (JsonException e) {
+				jsonReader.skipValue();
+				throw e;
 			}
-			return false;
+			fieldAccessor.setInt(objectValue, fieldValue);
+		}
+		
+		@Override
+		void write(JsonWriter jsonWriter, Object objectValue) throws JsonException {
+			int fieldValue;
+			try {
+				fieldValue = fieldAccessor.getInt(objectValue);
+			} catch (Exception e) {
+				logWriteError(objectValue, e);
+				return;
+			}
+			jsonWriter.rawName(encodedName);
+			jsonWriter.value(fieldValue);
+		}
+	}
+	
+	/**
+	 * long字段，数值直接读写，不装箱
+	 */
+	static final class LongBoundField extends BoundField {
+		
+		LongBoundField(JsonLog jsonLog,
+		               boolean isSerialize, boolean isDeserialize,
+		               String fieldName, Field field,
+		               TypeAdapter<?> fieldTypeAdapter) {
+			super(jsonLog, true, isSerialize, isDeserialize, fieldName, field, fieldTypeAdapter);
+		}
+		
+		@Override
+		void readValue(JsonReader jsonReader, Object objectValue) throws Exception {
+			if (jsonReader.next() != JsonToken.NUMBER) {
+				// null及字符串等由LongAdapter处理
+				super.readValue(jsonReader, objectValue);
+				return;
+			}
+			long fieldValue;
+			try {
+				fieldValue = jsonReader.nextLong();
+			} catch (JsonException e) {
+				jsonReader.skipValue();
+				throw e;
+			}
+			fieldAccessor.setLong(objectValue, fieldValue);
+		}
+		
+		@Override
+		void write(JsonWriter jsonWriter, Object objectValue) throws JsonException {
+			long fieldValue;
+			try {
+				fieldValue = fieldAccessor.getLong(objectValue);
+			} catch (Exception e) {
+				logWriteError(objectValue, e);
+				return;
+			}
+			jsonWriter.rawName(encodedName);
+			jsonWriter.value(fieldValue);
+		}
+	}
+	
+	/**
+	 * double字段，数值直接读写，不装箱
+	 */
+	static final class DoubleBoundField extends BoundField {
+		
+		DoubleBoundField(JsonLog jsonLog,
+		                 boolean isSerialize, boolean isDeserialize,
+		                 String fieldName, Field field,
+		                 TypeAdapter<?> fieldTypeAdapter) {
+			super(jsonLog, true, isSerialize, isDeserialize, fieldName, field, fieldTypeAdapter);
+		}
+		
+		@Override
+		void readValue(JsonReader jsonReader, Object objectValue) throws Exception {
+			if (jsonReader.next() != JsonToken.NUMBER) {
+				// null及字符串等由DoubleAdapter处理
+				super.readValue(jsonReader, objectValue);
+				return;
+			}
+			double fieldValue;
+			try {
+				fieldValue = jsonReader.nextDouble();
+			} catch (JsonException e) {
+				jsonReader.skipValue();
+				throw e;
+			}
+			fieldAccessor.setDouble(objectValue, fieldValue);
+		}
+		
+		@Override
+		void write(JsonWriter jsonWriter, Object objectValue) throws JsonException {
+			double fieldValue;
+			try {
+				fieldValue = fieldAccessor.getDouble(objectValue);
+			} catch (Exception e) {
+				logWriteError(objectValue, e);
+				return;
+			}
+			if (Double.isNaN(fieldValue) || Double.isInfinite(fieldValue)) {
+				// 与DoubleAdapter一致，非有限值按字符串原样输出
+				super.write(jsonWriter, objectValue);
+				return;
+			}
+			jsonWriter.rawName(encodedName);
+			jsonWriter.value(fieldValue);
+		}
+	}
+	
+	/**
+	 * boolean字段，直接读写，不装箱
+	 */
+	static final class BooleanBoundField extends BoundField {
+		
+		BooleanBoundField(JsonLog jsonLog,
+		                  boolean isSerialize, boolean isDeserialize,
+		                  String fieldName, Field field,
+		                  TypeAdapter<?> fieldTypeAdapter) {
+			super(jsonLog, true, isSerialize, isDeserialize, fieldName, field, fieldTypeAdapter);
+		}
+		
+		@Override
+		void readValue(JsonReader jsonReader, Object objectValue) throws Exception {
+			if (jsonReader.next() != JsonToken.BOOLEAN) {
+				// null及字符串等由BooleanAdapter处理
+				super.readValue(jsonReader, objectValue);
+				return;
+			}
+			fieldAccessor.setBoolean(objectValue, jsonReader.nextBoolean());
+		}
+		
+		@Override
+		void write(JsonWriter jsonWriter, Object objectValue) throws JsonException {
+			boolean fieldValue;
+			try {
+				fieldValue = fieldAccessor.getBoolean(objectValue);
+			} catch (Exception e) {
+				logWriteError(objectValue, e);
+				return;
+			}
+			jsonWriter.rawName(encodedName);
+			jsonWriter.value(fieldValue);
 		}
 	}
 }
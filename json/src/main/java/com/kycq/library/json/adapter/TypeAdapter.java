@@ -42,13 +42,18 @@ public abstract class TypeAdapter<T> {
 	
 	public static <TT> TypeAdapterFactory newFactory(final Class<TT> type,
 	                                                 final TypeAdapter<TT> typeAdapter) {
-		return new TypeAdapterFactory() {
+		return new RawTypeAdapterFactory() {
 			@SuppressWarnings("unchecked")
 			@Override
 			public <T> TypeAdapter<T> create(Json json, TypeToken<T> typeToken) {
 				return typeToken.getRawType() == type ? (TypeAdapter<T>) typeAdapter : null;
 			}
 			
+			@Override
+			public Class<?>[] getRawTypes() {
+				return new Class<?>[]{type};
+			}
+			
 			@Override
 			public String toString() {
 				return "Factory[type = " + type.getName() + ", adapter = " + typeAdapter + "]";
@@ -59,7 +64,7 @@ public abstract class TypeAdapter<T> {
 	public static <TT> TypeAdapterFactory newFactory(final Class<TT> unBoxedType,
 	                                                 final Class<TT> boxedType,
 	                                                 final TypeAdapter<? super TT> typeAdapter) {
-		return new TypeAdapterFactory() {
+		return new RawTypeAdapterFactory() {
 			@SuppressWarnings("unchecked")
 			@Override
 			public <T> TypeAdapter<T> create(Json json, TypeToken<T> typeToken) {
@@ -68,6 +73,11 @@ public abstract class TypeAdapter<T> {
 						? (TypeAdapter<T>) typeAdapter : null;
 			}
 			
+			@Override
+			public Class<?>[] getRawTypes() {
+				return new Class<?>[]{unBoxedType, boxedType};
+			}
+			
 			@Override
 			public String toString() {
 				return "Factory[type = " + boxedType.getName()
@@ -17,7 +17,6 @@ package com.kycq.library.json.adapter;
 
 import com.kycq.library.json.Json;
 import com.kycq.library.json.JsonException;
-import com.kycq.library.json.reflect.TypeToken;
 import com.kycq.library.json.stream.JsonReader;
 import com.kycq.library.json.stream.JsonWriter;
 
@@ -25,14 +24,24 @@ import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 
 final class TypeAdapterRuntimeTypeWrapper<T> extends TypeAdapter<T> {
+	/** 缓存的运行时类型数量 */
+	private static final int CACHE_SIZE = 4;
+	
 	private final Json json;
 	private final TypeAdapter<T> delegate;
 	private final Type type;
+	/** 是否按运行时类型选择适配器 */
+	private final boolean isRuntimeTypeSelectable;
+	/** 最近使用的运行时类型及适配器，元素不可变，并发读写时最多重复查找 */
+	private final RuntimeTypeEntry[] runtimeTypeEntries = new RuntimeTypeEntry[CACHE_SIZE];
+	/** 下一个替换的缓存位置 */
+	private int nextEntryIndex;
 	
 	TypeAdapterRuntimeTypeWrapper(Json json, TypeAdapter<T> delegate, Type type) {
 		this.json = json;
 		this.delegate = delegate;
 		this.type = type;
+		this.isRuntimeTypeSelectable = type == Object.class || type instanceof TypeVariable<?> || type instanceof Class<?>;
 	}
 	
 	@Override
@@ -43,39 +52,79 @@ final class TypeAdapterRuntimeTypeWrapper<T> extends TypeAdapter<T> {
 	@SuppressWarnings({"rawtypes", "unchecked"})
 	@Override
 	public void write(JsonWriter out, T value) throws JsonException {
+		TypeAdapter chosen = delegate;
+		if (value != null && isRuntimeTypeSelectable) {
+			Class<?> runtimeType = value.getClass();
+			if (runtimeType != type) {
+				chosen = getRuntimeTypeAdapter(runtimeType);
+			}
+		}
+		chosen.write(out, value);
+	}
+	
+	/**
+	 * 获取运行时类型的适配器，优先从缓存中查找
+	 *
+	 * @param runtimeType 运行时类型
+	 * @return 适配器
+	 */
+	private TypeAdapter<?> getRuntimeTypeAdapter(Class<?> runtimeType) {
+		RuntimeTypeEntry[] entries = this.runtimeTypeEntries;
+		for (RuntimeTypeEntry entry : entries) {
+			if (entry != null && entry.runtimeType == runtimeType) {
+				return entry.typeAdapter;
+			}
+		}
+		
+		TypeAdapter<?> chosen = chooseTypeAdapter(runtimeType);
+		int index = this.nextEntryIndex;
+		entries[index] = new RuntimeTypeEntry(runtimeType, chosen);
+		this.nextEntryIndex = (index + 1) % CACHE_SIZE;
+		return chosen;
+	}
+	
+	private TypeAdapter<?> chooseTypeAdapter(Class<?> runtimeType) {
 		// Order of preference for choosing type adapters
 		// First preference: a type adapter registered for the runtime type
 		// Second preference: a type adapter registered for the declared type
 		// Third preference: reflective type adapter for the runtime type (if it is a sub class of the declared type)
 		// Fourth preference: reflective type adapter for the declared type
 		
-		TypeAdapter chosen = delegate;
-		Type runtimeType = getRuntimeTypeIfMoreSpecific(type, value);
-		if (runtimeType != type) {
-			TypeAdapter runtimeTypeAdapter = this.json.getAdapter(TypeToken.get(runtimeType));
-			if (!(runtimeTypeAdapter instanceof ReflectiveTypeAdapter)) {
-				// The user registered a type adapter for the runtime type, so we will use that
-				chosen = runtimeTypeAdapter;
-			} else if (!(delegate instanceof ReflectiveTypeAdapter)) {
-				// The user registered a type adapter for Base class, so we prefer it over the
-				// reflective type adapter for the runtime type
-				chosen = delegate;
-			} else {
-				// Use the type adapter for runtime type
-				chosen = runtimeTypeAdapter;
-			}
+		TypeAdapter<?> runtimeTypeAdapter = this.json.getAdapter(runtimeType);
+		if (!isBeanTypeAdapter(runtimeTypeAdapter)) {
+			// The user registered a type adapter for the runtime type, so we will use that
+			return runtimeTypeAdapter;
+		} else if (!isBeanTypeAdapter(delegate)) {
+			// The user registered a type adapter for Base class, so we prefer it over the
+			// reflective type adapter for the runtime type
+			return delegate;
+		} else {
+			// Use the type adapter for runtime type
+			return runtimeTypeAdapter;
 		}
-		chosen.write(out, value);
 	}
 	
 	/**
-	 * Finds a compatible runtime type if it is more specific
+	 * 是否为按字段读写的适配器，生成的适配器与反射适配器同等对待
+	 *
+	 * @param typeAdapter 适配器
+	 * @return true 反射或生成的适配器
 	 */
-	private Type getRuntimeTypeIfMoreSpecific(Type type, Object value) {
-		if (value != null
-				&& (type == Object.class || type instanceof TypeVariable<?> || type instanceof Class<?>)) {
-			type = value.getClass();
+	private static boolean isBeanTypeAdapter(TypeAdapter<?> typeAdapter) {
+		return typeAdapter instanceof ReflectiveTypeAdapter
+				|| typeAdapter instanceof GeneratedTypeAdapter;
+	}
+	
+	/**
+	 * 运行时类型及对应的适配器
+	 */
+	private static final class RuntimeTypeEntry {
+		final Class<?> runtimeType;
+		final TypeAdapter<?> typeAdapter;
+		
+		RuntimeTypeEntry(Class<?> runtimeType, TypeAdapter<?> typeAdapter) {
+			this.runtimeType = runtimeType;
+			this.typeAdapter = typeAdapter;
 		}
-		return type;
 	}
 }
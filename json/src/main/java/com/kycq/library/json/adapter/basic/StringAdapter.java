@@ -7,8 +7,6 @@ import com.kycq.library.json.internal.LazilyParsedNumber;
 import com.kycq.library.json.stream.JsonReader;
 import com.kycq.library.json.stream.JsonWriter;
 
-import java.io.StringWriter;
-
 public class StringAdapter extends TypeAdapter<String> {
 	public static final StringAdapter ADAPTER = new StringAdapter();
 	public static final TypeAdapterFactory FACTORY = newFactory(String.class, ADAPTER);
@@ -20,16 +18,14 @@ public class StringAdapter extends TypeAdapter<String> {
 				jsonReader.nextNull();
 				return null;
 			case BEGIN_ARRAY: {
-				StringWriter writer = new StringWriter();
-				JsonWriter jsonWriter = new JsonWriter(writer, false);
+				JsonWriter jsonWriter = new JsonWriter(false);
 				readJsonArray(jsonReader, jsonWriter);
-				return writer.toString();
+				return jsonWriter.getJsonString();
 			}
 			case BEGIN_OBJECT: {
-				StringWriter writer = new StringWriter();
-				JsonWriter jsonWriter = new JsonWriter(writer, false);
+				JsonWriter jsonWriter = new JsonWriter(false);
 				readJsonObject(jsonReader, jsonWriter);
-				return writer.toString();
+				return jsonWriter.getJsonString();
 			}
 			case BOOLEAN:
 				return Boolean.toString(jsonReader.nextBoolean());
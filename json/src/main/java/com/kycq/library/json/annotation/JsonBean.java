@@ -0,0 +1,16 @@
+package com.kycq.library.json.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记在编译期生成TypeAdapter的类，需要在编译时启用json-compiler注解处理器。
+ * <p>
+ * 生成的适配器直接读写字段，不使用反射；包含私有字段或泛型的类不会生成，仍使用反射处理。
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface JsonBean {
+}
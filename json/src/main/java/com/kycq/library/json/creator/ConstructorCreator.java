@@ -202,25 +202,47 @@ public final class ConstructorCreator {
 	
 	private <T> ObjectConstructor<T> newUnsafeAllocator(
 			final Type type, final Class<? super T> rawType) {
+		try {
+			// 创建时检查一次，分配对象时不再检查
+			UnsafeAllocator.assertInstantiable(rawType);
+		} catch (final UnsupportedOperationException e) {
+			return new ObjectConstructor<T>() {
+				@Override
+				public T construct() {
+					throw unableToInvoke(type, e);
+				}
+			};
+		}
+		
+		final UnsafeAllocator unsafeAllocator = UnsafeAllocatorHolder.INSTANCE;
 		return new ObjectConstructor<T>() {
-			private final UnsafeAllocator unsafeAllocator = UnsafeAllocator.create();
-			
 			@SuppressWarnings("unchecked")
 			@Override
 			public T construct() {
 				try {
-					Object newInstance = unsafeAllocator.newInstance(rawType);
+					Object newInstance = unsafeAllocator.allocateInstance(rawType);
 					return (T) newInstance;
 				} catch (Exception e) {
-					throw new RuntimeException(("Unable to invoke no-args constructor for " + type + ". "
-							+ "Register an InstanceCreator with Gson for this type may fix this problem."), e);
+					throw unableToInvoke(type, e);
 				}
 			}
 		};
 	}
 	
+	private static RuntimeException unableToInvoke(Type type, Exception e) {
+		return new RuntimeException(("Unable to invoke no-args constructor for " + type + ". "
+				+ "Register an InstanceCreator with Gson for this type may fix this problem."), e);
+	}
+	
 	@Override
 	public String toString() {
 		return instanceCreators.toString();
 	}
+	
+	/**
+	 * 共用的UnsafeAllocator，首次使用时创建
+	 */
+	private static final class UnsafeAllocatorHolder {
+		static final UnsafeAllocator INSTANCE = UnsafeAllocator.create();
+	}
 }
@@ -0,0 +1,36 @@
+package com.kycq.library.json.internal;
+
+import java.lang.reflect.Field;
+
+import sun.misc.Unsafe;
+
+/**
+ * 直接引用Unsafe分配对象，避免每次通过反射调用allocateInstance。
+ * <p>
+ * 仅在{@link #isAvailable()}返回true后使用，否则加载该类会失败。
+ */
+final class DirectUnsafeAllocator extends UnsafeAllocator {
+	private static final Unsafe UNSAFE = loadUnsafe();
+	
+	private static Unsafe loadUnsafe() {
+		try {
+			Field field = Unsafe.class.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			Unsafe unsafe = (Unsafe) field.get(null);
+			// 早期Android的Unsafe不支持allocateInstance
+			Unsafe.class.getMethod("allocateInstance", Class.class);
+			return unsafe;
+		} catch (Exception ignored) {
+			return null;
+		}
+	}
+	
+	static boolean isAvailable() {
+		return UNSAFE != null;
+	}
+	
+	@Override
+	public <T> T allocateInstance(Class<T> c) throws Exception {
+		return c.cast(UNSAFE.allocateInstance(c));
+	}
+}
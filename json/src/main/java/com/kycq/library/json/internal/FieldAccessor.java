@@ -0,0 +1,222 @@
+package com.kycq.library.json.internal;
+
+import java.lang.reflect.Field;
+
+/**
+ * 字段读写器，优先通过Unsafe按字段偏移量直接读写，不可用时使用反射。
+ * <p>
+ * 基本类型的读写方法不装箱，仅可用于对应类型的字段。
+ */
+public abstract class FieldAccessor {
+	/** Unsafe是否可用 */
+	private static final boolean IS_UNSAFE_AVAILABLE;
+	
+	static {
+		boolean isUnsafeAvailable;
+		try {
+			isUnsafeAvailable = UnsafeFieldAccessor.isAvailable();
+		} catch (Throwable ignored) {
+			// 不存在sun.misc.Unsafe
+			isUnsafeAvailable = false;
+		}
+		IS_UNSAFE_AVAILABLE = isUnsafeAvailable;
+	}
+	
+	/**
+	 * 读取字段值，基本类型返回包装类型
+	 *
+	 * @param object 对象
+	 * @return 字段值
+	 */
+	public abstract Object get(Object object);
+	
+	/**
+	 * 写入字段值，与反射一致，基本类型字段只接受可拓宽转换为字段类型的包装类型
+	 *
+	 * @param object 对象
+	 * @param value  字段值
+	 * @throws IllegalArgumentException 值的类型与字段不符，或基本类型字段的值为null
+	 */
+	public abstract void set(Object object, Object value);
+	
+	/**
+	 * 读取int字段值
+	 *
+	 * @param object 对象
+	 * @return 字段值
+	 */
+	public abstract int getInt(Object object);
+	
+	/**
+	 * 写入int字段值
+	 *
+	 * @param object 对象
+	 * @param value  字段值
+	 */
+	public abstract void setInt(Object object, int value);
+	
+	/**
+	 * 读取long字段值
+	 *
+	 * @param object 对象
+	 * @return 字段值
+	 */
+	public abstract long getLong(Object object);
+	
+	/**
+	 * 写入long字段值
+	 *
+	 * @param object 对象
+	 * @param value  字段值
+	 */
+	public abstract void setLong(Object object, long value);
+	
+	/**
+	 * 读取double字段值
+	 *
+	 * @param object 对象
+	 * @return 字段值
+	 */
+	public abstract double getDouble(Object object);
+	
+	/**
+	 * 写入double字段值
+	 *
+	 * @param object 对象
+	 * @param value  字段值
+	 */
+	public abstract void setDouble(Object object, double value);
+	
+	/**
+	 * 读取boolean字段值
+	 *
+	 * @param object 对象
+	 * @return 字段值
+	 */
+	public abstract boolean getBoolean(Object object);
+	
+	/**
+	 * 写入boolean字段值
+	 *
+	 * @param object 对象
+	 * @param value  字段值
+	 */
+	public abstract void setBoolean(Object object, boolean value);
+	
+	/**
+	 * 创建字段读写器
+	 *
+	 * @param field 非静态字段，已调用{@link Field#setAccessible(boolean)}
+	 * @return 字段读写器
+	 */
+	public static FieldAccessor create(Field field) {
+		if (IS_UNSAFE_AVAILABLE) {
+			FieldAccessor fieldAccessor = UnsafeFieldAccessor.createAccessor(field);
+			if (fieldAccessor != null) {
+				return fieldAccessor;
+			}
+		}
+		return new ReflectiveFieldAccessor(field);
+	}
+	
+	/**
+	 * 反射字段读写器
+	 */
+	private static final class ReflectiveFieldAccessor extends FieldAccessor {
+		private final Field field;
+		
+		ReflectiveFieldAccessor(Field field) {
+			this.field = field;
+		}
+		
+		@Override
+		public Object get(Object object) {
+			try {
+				return field.get(object);
+			} catch (IllegalAccessException e) {
+				throw new AssertionError(e);
+			}
+		}
+		
+		@Override
+		public void set(Object object, Object value) {
+			try {
+				field.set(object, value);
+			} catch (IllegalAccessException e) {
+				throw new AssertionError(e);
+			}
+		}
+		
+		@Override
+		public int getInt(Object object) {
+			try {
+				return field.getInt(object);
+			} catch (IllegalAccessException e) {
+				throw new AssertionError(e);
+			}
+		}
+		
+		@Override
+		public void setInt(Object object, int value) {
+			try {
+				field.setInt(object, value);
+			} catch (IllegalAccessException e) {
+				throw new AssertionError(e);
+			}
+		}
+		
+		@Override
+		public long getLong(Object object) {
+			try {
+				return field.getLong(object);
+			} catch (IllegalAccessException e) {
+				throw new AssertionError(e);
+			}
+		}
+		
+		@Override
+		public void setLong(Object object, long value) {
+			try {
+				field.setLong(object, value);
+			} catch (IllegalAccessException e) {
+				throw new AssertionError(e);
+			}
+		}
+		
+		@Override
+		public double getDouble(Object object) {
+			try {
+				return field.getDouble(object);
+			} catch (IllegalAccessException e) {
+				throw new AssertionError(e);
+			}
+		}
+		
+		@Override
+		public void setDouble(Object object, double value) {
+			try {
+				field.setDouble(object, value);
+			} catch (IllegalAccessException e) {
+				throw new AssertionError(e);
+			}
+		}
+		
+		@Override
+		public boolean getBoolean(Object object) {
+			try {
+				return field.getBoolean(object);
+			} catch (IllegalAccessException e) {
+				throw new AssertionError(e);
+			}
+		}
+		
+		@Override
+		public void setBoolean(Object object, boolean value) {
+			try {
+				field.setBoolean(object, value);
+			} catch (IllegalAccessException e) {
+				throw new AssertionError(e);
+			}
+		}
+	}
+}
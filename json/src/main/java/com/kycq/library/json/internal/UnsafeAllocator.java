@@ -18,7 +18,6 @@ package com.kycq.library.json.internal;
 
 import java.io.ObjectInputStream;
 import java.io.ObjectStreamClass;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 
@@ -29,7 +28,20 @@ import java.lang.reflect.Modifier;
  * @author Jesse Wilson
  */
 public abstract class UnsafeAllocator {
-	public abstract <T> T newInstance(Class<T> c) throws Exception;
+	
+	/**
+	 * 分配对象，不调用构造方法，也不检查是否可以实例化
+	 *
+	 * @param c 已通过{@link #assertInstantiable(Class)}检查的类
+	 * @return 对象
+	 * @throws Exception 错误信息
+	 */
+	public abstract <T> T allocateInstance(Class<T> c) throws Exception;
+	
+	public <T> T newInstance(Class<T> c) throws Exception {
+		assertInstantiable(c);
+		return allocateInstance(c);
+	}
 	
 	public static UnsafeAllocator create() {
 		// try JVM
@@ -37,20 +49,11 @@ public abstract class UnsafeAllocator {
 		//   public Object allocateInstance(Class<?> type);
 		// }
 		try {
-			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
-			Field f = unsafeClass.getDeclaredField("theUnsafe");
-			f.setAccessible(true);
-			final Object unsafe = f.get(null);
-			final Method allocateInstance = unsafeClass.getMethod("allocateInstance", Class.class);
-			return new UnsafeAllocator() {
-				@Override
-				@SuppressWarnings("unchecked")
-				public <T> T newInstance(Class<T> c) throws Exception {
-					assertInstantiable(c);
-					return (T) allocateInstance.invoke(unsafe, c);
-				}
-			};
-		} catch (Exception ignored) {
+			if (DirectUnsafeAllocator.isAvailable()) {
+				return new DirectUnsafeAllocator();
+			}
+		} catch (Throwable ignored) {
+			// 不存在sun.misc.Unsafe
 		}
 		
 		// try dalvikvm, post-gingerbread
@@ -69,8 +72,7 @@ public abstract class UnsafeAllocator {
 			return new UnsafeAllocator() {
 				@Override
 				@SuppressWarnings("unchecked")
-				public <T> T newInstance(Class<T> c) throws Exception {
-					assertInstantiable(c);
+				public <T> T allocateInstance(Class<T> c) throws Exception {
 					return (T) newInstance.invoke(null, c, constructorId);
 				}
 			};
@@ -89,8 +91,7 @@ public abstract class UnsafeAllocator {
 			return new UnsafeAllocator() {
 				@Override
 				@SuppressWarnings("unchecked")
-				public <T> T newInstance(Class<T> c) throws Exception {
-					assertInstantiable(c);
+				public <T> T allocateInstance(Class<T> c) throws Exception {
 					return (T) newInstance.invoke(null, c, Object.class);
 				}
 			};
@@ -100,7 +101,7 @@ public abstract class UnsafeAllocator {
 		// give up
 		return new UnsafeAllocator() {
 			@Override
-			public <T> T newInstance(Class<T> c) {
+			public <T> T allocateInstance(Class<T> c) {
 				throw new UnsupportedOperationException("Cannot allocate " + c);
 			}
 		};
@@ -112,7 +113,7 @@ public abstract class UnsafeAllocator {
 	 *
 	 * @param c instance of the class to be checked
 	 */
-	static void assertInstantiable(Class<?> c) {
+	public static void assertInstantiable(Class<?> c) {
 		int modifiers = c.getModifiers();
 		if (Modifier.isInterface(modifiers)) {
 			throw new UnsupportedOperationException("Interface can't be instantiated! Interface name: " + c.getName());
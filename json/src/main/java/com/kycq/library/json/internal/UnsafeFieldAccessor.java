@@ -0,0 +1,261 @@
+package com.kycq.library.json.internal;
+
+import java.lang.reflect.Field;
+
+import sun.misc.Unsafe;
+
+/**
+ * 通过Unsafe按字段偏移量直接读写字段，避免反射的访问检查及参数校验。
+ * <p>
+ * 仅在{@link #isAvailable()}返回true后使用，否则加载该类会失败。
+ */
+final class UnsafeFieldAccessor extends FieldAccessor {
+	private static final int TYPE_OBJECT = 0;
+	private static final int TYPE_INT = 1;
+	private static final int TYPE_LONG = 2;
+	private static final int TYPE_BOOLEAN = 3;
+	private static final int TYPE_BYTE = 4;
+	private static final int TYPE_SHORT = 5;
+	private static final int TYPE_CHAR = 6;
+	private static final int TYPE_FLOAT = 7;
+	private static final int TYPE_DOUBLE = 8;
+	
+	private static final Unsafe UNSAFE = loadUnsafe();
+	/** 是否支持全部基本类型的读写，早期Android仅支持int及long */
+	private static final boolean IS_ALL_PRIMITIVES_SUPPORTED = isAllPrimitivesSupported();
+	
+	/** 字段类型 */
+	private final int type;
+	/** 字段偏移量 */
+	private final long offset;
+	/** 字段类，写入对象时校验类型 */
+	private final Class<?> fieldClass;
+	/** 字段的包装类型，写入基本类型字段时校验类型 */
+	private final Class<?> wrapperClass;
+	
+	private UnsafeFieldAccessor(int type, long offset, Class<?> fieldClass) {
+		this.type = type;
+		this.offset = offset;
+		this.fieldClass = fieldClass;
+		this.wrapperClass = Primitives.wrap(fieldClass);
+	}
+	
+	private static Unsafe loadUnsafe() {
+		try {
+			Field field = Unsafe.class.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			return (Unsafe) field.get(null);
+		} catch (Exception ignored) {
+			return null;
+		}
+	}
+	
+	private static boolean isAllPrimitivesSupported() {
+		if (UNSAFE == null) {
+			return false;
+		}
+		try {
+			Class<?>[] primitives = new Class<?>[]{boolean.class, byte.class, short.class, char.class, float.class, double.class};
+			for (Class<?> primitive : primitives) {
+				String name = Character.toUpperCase(primitive.getName().charAt(0)) + primitive.getName().substring(1);
+				Unsafe.class.getMethod("get" + name, Object.class, long.class);
+				Unsafe.class.getMethod("put" + name, Object.class, long.class, primitive);
+			}
+			return true;
+		} catch (NoSuchMethodException ignored) {
+			return false;
+		}
+	}
+	
+	static boolean isAvailable() {
+		return UNSAFE != null;
+	}
+	
+	/**
+	 * 创建字段读写器
+	 *
+	 * @param field 非静态字段
+	 * @return 字段读写器，不支持该字段时返回null
+	 */
+	static FieldAccessor createAccessor(Field field) {
+		Class<?> fieldType = field.getType();
+		int type;
+		if (!fieldType.isPrimitive()) {
+			type = TYPE_OBJECT;
+		} else if (fieldType == int.class) {
+			type = TYPE_INT;
+		} else if (fieldType == long.class) {
+			type = TYPE_LONG;
+		} else if (!IS_ALL_PRIMITIVES_SUPPORTED) {
+			return null;
+		} else if (fieldType == boolean.class) {
+			type = TYPE_BOOLEAN;
+		} else if (fieldType == byte.class) {
+			type = TYPE_BYTE;
+		} else if (fieldType == short.class) {
+			type = TYPE_SHORT;
+		} else if (fieldType == char.class) {
+			type = TYPE_CHAR;
+		} else if (fieldType == float.class) {
+			type = TYPE_FLOAT;
+		} else {
+			type = TYPE_DOUBLE;
+		}
+		try {
+			return new UnsafeFieldAccessor(type, UNSAFE.objectFieldOffset(field), fieldType);
+		} catch (Exception ignored) {
+			// 部分运行时不支持获取偏移量，例如隐藏类的字段
+			return null;
+		}
+	}
+	
+	@Override
+	public Object get(Object object) {
+		switch (type) {
+			case TYPE_OBJECT:
+				return UNSAFE.getObject(object, offset);
+			case TYPE_INT:
+				return UNSAFE.getInt(object, offset);
+			case TYPE_LONG:
+				return UNSAFE.getLong(object, offset);
+			case TYPE_BOOLEAN:
+				return UNSAFE.getBoolean(object, offset);
+			case TYPE_BYTE:
+				return UNSAFE.getByte(object, offset);
+			case TYPE_SHORT:
+				return UNSAFE.getShort(object, offset);
+			case TYPE_CHAR:
+				return UNSAFE.getChar(object, offset);
+			case TYPE_FLOAT:
+				return UNSAFE.getFloat(object, offset);
+			default:
+				return UNSAFE.getDouble(object, offset);
+		}
+	}
+	
+	@Override
+	public void set(Object object, Object value) {
+		if (type != TYPE_OBJECT && (value == null || value.getClass() != wrapperClass)) {
+			value = widen(value);
+		}
+		switch (type) {
+			case TYPE_OBJECT:
+				if (value != null && !fieldClass.isInstance(value)) {
+					// 与反射一致，避免写入错误类型的对象
+					throw cannotSet(value);
+				}
+				UNSAFE.putObject(object, offset, value);
+				break;
+			case TYPE_INT:
+				UNSAFE.putInt(object, offset, ((Number) value).intValue());
+				break;
+			case TYPE_LONG:
+				UNSAFE.putLong(object, offset, ((Number) value).longValue());
+				break;
+			case TYPE_BOOLEAN:
+				UNSAFE.putBoolean(object, offset, (Boolean) value);
+				break;
+			case TYPE_BYTE:
+				UNSAFE.putByte(object, offset, ((Number) value).byteValue());
+				break;
+			case TYPE_SHORT:
+				UNSAFE.putShort(object, offset, ((Number) value).shortValue());
+				break;
+			case TYPE_CHAR:
+				UNSAFE.putChar(object, offset, (Character) value);
+				break;
+			case TYPE_FLOAT:
+				UNSAFE.putFloat(object, offset, ((Number) value).floatValue());
+				break;
+			default:
+				UNSAFE.putDouble(object, offset, ((Number) value).doubleValue());
+				break;
+		}
+	}
+	
+	/**
+	 * 与反射一致，数值按拓宽转换规则转换后写入基本类型字段，不截断
+	 *
+	 * @param value 与字段包装类型不同的值
+	 * @return 可按字段类型读取的数值
+	 * @throws IllegalArgumentException 值为null或无法拓宽转换为字段类型
+	 */
+	private Object widen(Object value) {
+		if (value == null || wrapperClass == Boolean.class || wrapperClass == Character.class) {
+			throw cannotSet(value);
+		}
+		int valueRank = getNumberRank(value.getClass());
+		if (valueRank == 0 || valueRank > getNumberRank(wrapperClass)) {
+			throw cannotSet(value);
+		}
+		return value instanceof Character ? Integer.valueOf((Character) value) : value;
+	}
+	
+	/**
+	 * 获取数值类型的拓宽顺序，char只能拓宽为int及以上，与int同级
+	 *
+	 * @param clazz 包装类型
+	 * @return 拓宽顺序，非数值类型返回0
+	 */
+	private static int getNumberRank(Class<?> clazz) {
+		if (clazz == Byte.class) {
+			return 1;
+		} else if (clazz == Short.class) {
+			return 2;
+		} else if (clazz == Integer.class || clazz == Character.class) {
+			return 3;
+		} else if (clazz == Long.class) {
+			return 4;
+		} else if (clazz == Float.class) {
+			return 5;
+		} else if (clazz == Double.class) {
+			return 6;
+		}
+		return 0;
+	}
+	
+	private IllegalArgumentException cannotSet(Object value) {
+		return new IllegalArgumentException("Can not set " + fieldClass.getName() + " field to "
+				+ (value == null ? "null value" : value.getClass().getName()));
+	}
+	
+	@Override
+	public int getInt(Object object) {
+		return UNSAFE.getInt(object, offset);
+	}
+	
+	@Override
+	public void setInt(Object object, int value) {
+		UNSAFE.putInt(object, offset, value);
+	}
+	
+	@Override
+	public long getLong(Object object) {
+		return UNSAFE.getLong(object, offset);
+	}
+	
+	@Override
+	public void setLong(Object object, long value) {
+		UNSAFE.putLong(object, offset, value);
+	}
+	
+	@Override
+	public double getDouble(Object object) {
+		return UNSAFE.getDouble(object, offset);
+	}
+	
+	@Override
+	public void setDouble(Object object, double value) {
+		UNSAFE.putDouble(object, offset, value);
+	}
+	
+	@Override
+	public boolean getBoolean(Object object) {
+		return UNSAFE.getBoolean(object, offset);
+	}
+	
+	@Override
+	public void setBoolean(Object object, boolean value) {
+		UNSAFE.putBoolean(object, offset, value);
+	}
+}
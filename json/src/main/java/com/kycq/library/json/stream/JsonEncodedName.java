@@ -0,0 +1,65 @@
+package com.kycq.library.json.stream;
+
+/**
+ * 预先编码的键名，写入时直接复制带引号的键名，不必逐字符检查转义。
+ * <p>
+ * 只有不需要转义的键名（可见ASCII字符，且不包含引号、反斜杠及HTML字符）才会预先编码，
+ * 其他键名写入时与{@link JsonWriter#name(String)}一致。
+ */
+public final class JsonEncodedName {
+	/** 键名 */
+	final String mName;
+	/** 带引号的键名，为null时键名需要转义 */
+	final char[] mQuotedChars;
+	/** 带前置逗号及引号的键名，为null时键名需要转义 */
+	final char[] mCommaQuotedChars;
+	
+	/**
+	 * 构造方法
+	 *
+	 * @param name 键名
+	 */
+	public JsonEncodedName(String name) {
+		if (name == null) {
+			throw new NullPointerException("name can't be null");
+		}
+		mName = name;
+		
+		int length = name.length();
+		for (int index = 0; index < length; index++) {
+			char c = name.charAt(index);
+			if (c < 0x20 || c > 0x7e
+					|| c == '"' || c == '\\' || c == '\''
+					|| c == '<' || c == '>' || c == '&' || c == '=') {
+				mQuotedChars = null;
+				mCommaQuotedChars = null;
+				return;
+			}
+		}
+		
+		char[] commaQuotedChars = new char[length + 3];
+		commaQuotedChars[0] = ',';
+		commaQuotedChars[1] = '"';
+		name.getChars(0, length, commaQuotedChars, 2);
+		commaQuotedChars[length + 2] = '"';
+		mCommaQuotedChars = commaQuotedChars;
+		
+		char[] quotedChars = new char[length + 2];
+		System.arraycopy(commaQuotedChars, 1, quotedChars, 0, length + 2);
+		mQuotedChars = quotedChars;
+	}
+	
+	/**
+	 * 获取键名
+	 *
+	 * @return 键名
+	 */
+	public String getName() {
+		return mName;
+	}
+	
+	@Override
+	public String toString() {
+		return mName;
+	}
+}
@@ -0,0 +1,238 @@
+package com.kycq.library.json.stream;
+
+import com.kycq.library.json.JsonException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 非阻塞的增量JSON读取器，适用于在事件循环中解析分段到达的UTF-8数据。
+ * <p>
+ * 通过{@link #feed(byte[])}写入已到达的数据，再循环调用{@link #peek()}读取值类型，
+ * 返回{@link JsonToken#NEED_MORE_INPUT}时等待写入更多数据；数据全部写入后调用{@link #endOfInput()}。
+ * 只有{@link #peek()}返回的值类型才能被读取，读取方法不会等待数据。
+ */
+public final class JsonFeedReader implements Closeable {
+	/** 增量读取流 */
+	private final Utf8FeedReader mFeedReader;
+	/** JSON读取器，复用其解析栈 */
+	private final JsonReader mJsonReader;
+	
+	/**
+	 * 构造方法
+	 */
+	public JsonFeedReader() {
+		mFeedReader = new Utf8FeedReader();
+		mJsonReader = new JsonReader(mFeedReader);
+	}
+	
+	/**
+	 * 写入数据
+	 *
+	 * @param bytes UTF-8字节数据
+	 */
+	public void feed(byte[] bytes) {
+		mFeedReader.feed(bytes, 0, bytes.length);
+	}
+	
+	/**
+	 * 写入数据
+	 *
+	 * @param bytes  UTF-8字节数据
+	 * @param offset 开始位置
+	 * @param length 数据长度
+	 */
+	public void feed(byte[] bytes, int offset, int length) {
+		mFeedReader.feed(bytes, offset, length);
+	}
+	
+	/**
+	 * 写入数据，读取字节缓存区的全部剩余字节
+	 *
+	 * @param byteBuffer UTF-8字节缓存区
+	 */
+	public void feed(ByteBuffer byteBuffer) {
+		mFeedReader.feed(byteBuffer);
+	}
+	
+	/**
+	 * 标记数据已全部写入，之后数据不足时按文档结束处理
+	 */
+	public void endOfInput() {
+		mFeedReader.end();
+	}
+	
+	/**
+	 * 读取下个值类型，不消耗该值
+	 *
+	 * @return 值类型，数据不足时返回{@link JsonToken#NEED_MORE_INPUT}
+	 * @throws JsonException 错误信息
+	 */
+	public JsonToken peek() throws JsonException {
+		return mJsonReader.peekFeed();
+	}
+	
+	/**
+	 * 开始读取数组
+	 *
+	 * @throws JsonException 错误信息
+	 */
+	public void beginArray() throws JsonException {
+		requireToken();
+		mJsonReader.beginArray();
+	}
+	
+	/**
+	 * 结束读取数组
+	 *
+	 * @throws JsonException 错误信息
+	 */
+	public void endArray() throws JsonException {
+		requireToken();
+		mJsonReader.endArray();
+	}
+	
+	/**
+	 * 开始读取对象
+	 *
+	 * @throws JsonException 错误信息
+	 */
+	public void beginObject() throws JsonException {
+		requireToken();
+		mJsonReader.beginObject();
+	}
+	
+	/**
+	 * 结束读取对象
+	 *
+	 * @throws JsonException 错误信息
+	 */
+	public void endObject() throws JsonException {
+		requireToken();
+		mJsonReader.endObject();
+	}
+	
+	/**
+	 * 读取键名
+	 *
+	 * @return 键名
+	 * @throws JsonException 错误信息
+	 */
+	public String nextName() throws JsonException {
+		requireToken();
+		return mJsonReader.nextName();
+	}
+	
+	/**
+	 * 读取键名，并在键名表中查找
+	 *
+	 * @param nameTable 键名表
+	 * @return 键名下标，-1表示键名不在键名表中
+	 * @throws JsonException 错误信息
+	 */
+	public int nextName(JsonNameTable nameTable) throws JsonException {
+		requireToken();
+		return mJsonReader.nextName(nameTable);
+	}
+	
+	/**
+	 * 读取字符串
+	 *
+	 * @return 字符串
+	 * @throws JsonException 错误信息
+	 */
+	public String nextString() throws JsonException {
+		requireToken();
+		return mJsonReader.nextString();
+	}
+	
+	/**
+	 * 读取空值
+	 *
+	 * @throws JsonException 错误信息
+	 */
+	public void nextNull() throws JsonException {
+		requireToken();
+		mJsonReader.nextNull();
+	}
+	
+	/**
+	 * 读取布尔值
+	 *
+	 * @return 布尔值
+	 * @throws JsonException 错误信息
+	 */
+	public boolean nextBoolean() throws JsonException {
+		requireToken();
+		return mJsonReader.nextBoolean();
+	}
+	
+	/**
+	 * 读取double值
+	 *
+	 * @return double值
+	 * @throws JsonException 错误信息
+	 */
+	public double nextDouble() throws JsonException {
+		requireToken();
+		return mJsonReader.nextDouble();
+	}
+	
+	/**
+	 * 读取long值
+	 *
+	 * @return long值
+	 * @throws JsonException 错误信息
+	 */
+	public long nextLong() throws JsonException {
+		requireToken();
+		return mJsonReader.nextLong();
+	}
+	
+	/**
+	 * 读取int值
+	 *
+	 * @return int值
+	 * @throws JsonException 错误信息
+	 */
+	public int nextInt() throws JsonException {
+		requireToken();
+		return mJsonReader.nextInt();
+	}
+	
+	/**
+	 * 略过该值的读取，对象或数组的数据不足时在之后的{@link #peek()}中继续略过
+	 *
+	 * @throws JsonException 错误信息
+	 */
+	public void skipValue() throws JsonException {
+		JsonToken token = requireToken();
+		if (token == JsonToken.END_ARRAY || token == JsonToken.END_OBJECT || token == JsonToken.END_DOCUMENT) {
+			throw new JsonException("Expected a value but was " + token + getCurrentPath());
+		}
+		mJsonReader.skipFeedValue();
+	}
+	
+	/**
+	 * 获取当前读取路径
+	 *
+	 * @return 读取路径
+	 */
+	public String getCurrentPath() {
+		return mJsonReader.getCurrentPath();
+	}
+	
+	private JsonToken requireToken() throws JsonException {
+		JsonToken token = mJsonReader.peekFeed();
+		if (token == JsonToken.NEED_MORE_INPUT) {
+			throw new JsonException("Need more input" + getCurrentPath());
+		}
+		return token;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		mJsonReader.close();
+	}
+}
@@ -0,0 +1,160 @@
+package com.kycq.library.json.stream;
+
+/**
+ * 预先计算哈希值的键名表，用于在读取缓存区内直接匹配键名，不必为已知键名创建字符串。
+ */
+public final class JsonNameTable {
+	/** 键名 */
+	private final String[] mNames;
+	/** 键名哈希值，与{@link String#hashCode()}一致 */
+	private final int[] mHashCodes;
+	/** 键名第一次出现的下标，用于重复键名 */
+	private final int[] mFirstIndexes;
+	/** 开放寻址哈希槽，存储键名下标+1，0表示空槽 */
+	private final int[] mSlots;
+	/** 哈希槽掩码 */
+	private final int mMask;
+	
+	/**
+	 * 构造方法
+	 *
+	 * @param names 键名，重复的键名以第一个为准
+	 */
+	public JsonNameTable(String... names) {
+		int size = names.length;
+		mNames = names.clone();
+		mHashCodes = new int[size];
+		mFirstIndexes = new int[size];
+		
+		int capacity = 4;
+		while (capacity < size * 2) {
+			capacity <<= 1;
+		}
+		mSlots = new int[capacity];
+		mMask = capacity - 1;
+		
+		for (int index = 0; index < size; index++) {
+			String name = mNames[index];
+			if (name == null) {
+				throw new NullPointerException("name can't be null");
+			}
+			int hashCode = name.hashCode();
+			mHashCodes[index] = hashCode;
+			int firstIndex = find(name);
+			if (firstIndex < 0) {
+				firstIndex = index;
+				int slot = slot(hashCode);
+				while (mSlots[slot] != 0) {
+					slot = (slot + 1) & mMask;
+				}
+				mSlots[slot] = index + 1;
+			}
+			mFirstIndexes[index] = firstIndex;
+		}
+	}
+	
+	/**
+	 * 键名数量
+	 *
+	 * @return 键名数量
+	 */
+	public int size() {
+		return mNames.length;
+	}
+	
+	/**
+	 * 获取键名
+	 *
+	 * @param index 键名下标
+	 * @return 键名
+	 */
+	public String getName(int index) {
+		return mNames[index];
+	}
+	
+	/**
+	 * 查找键名
+	 *
+	 * @param name 键名
+	 * @return 键名下标，-1表示不存在
+	 */
+	public int find(String name) {
+		int hashCode = name.hashCode();
+		int length = name.length();
+		for (int slot = slot(hashCode); ; slot = (slot + 1) & mMask) {
+			int index = mSlots[slot] - 1;
+			if (index < 0) {
+				return -1;
+			}
+			if (mHashCodes[index] == hashCode && mNames[index].length() == length && mNames[index].equals(name)) {
+				return index;
+			}
+		}
+	}
+	
+	/**
+	 * 在字符缓存区中查找键名
+	 *
+	 * @param buffer   字符缓存区
+	 * @param offset   键名开始位置
+	 * @param length   键名长度
+	 * @param hashCode 键名哈希值
+	 * @return 键名下标，-1表示不存在
+	 */
+	int find(char[] buffer, int offset, int length, int hashCode) {
+		for (int slot = slot(hashCode); ; slot = (slot + 1) & mMask) {
+			int index = mSlots[slot] - 1;
+			if (index < 0) {
+				return -1;
+			}
+			if (mHashCodes[index] == hashCode && matches(index, buffer, offset, length)) {
+				return index;
+			}
+		}
+	}
+	
+	/**
+	 * 在字符缓存区中查找键名，先比较预测的键名，不一致时再查找哈希槽
+	 *
+	 * @param buffer        字符缓存区
+	 * @param offset        键名开始位置
+	 * @param length        键名长度
+	 * @param hashCode      键名哈希值
+	 * @param expectedIndex 预测的键名下标，超出范围时直接查找
+	 * @return 键名下标，-1表示不存在
+	 */
+	int find(char[] buffer, int offset, int length, int hashCode, int expectedIndex) {
+		if (expectedIndex >= 0 && expectedIndex < mNames.length
+				&& mHashCodes[expectedIndex] == hashCode
+				&& matches(expectedIndex, buffer, offset, length)) {
+			return mFirstIndexes[expectedIndex];
+		}
+		return find(buffer, offset, length, hashCode);
+	}
+	
+	/**
+	 * 比较缓存区中的字符与键名是否一致
+	 *
+	 * @param index  键名下标
+	 * @param buffer 字符缓存区
+	 * @param offset 开始位置
+	 * @param length 长度
+	 * @return true 一致
+	 */
+	boolean matches(int index, char[] buffer, int offset, int length) {
+		String name = mNames[index];
+		if (name.length() != length) {
+			return false;
+		}
+		for (int position = 0; position < length; position++) {
+			if (name.charAt(position) != buffer[offset + position]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private int slot(int hashCode) {
+		return (hashCode ^ (hashCode >>> 16)) & mMask;
+	}
+}
@@ -3,10 +3,11 @@ package com.kycq.library.json.stream;
 import com.kycq.library.json.JsonException;
 
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
-import java.io.StringReader;
-import java.math.BigDecimal;
+import java.util.Arrays;
 
 public final class JsonReader implements Closeable {
 	/** 开始读取数字 */
@@ -26,13 +27,47 @@ public final class JsonReader implements Closeable {
 	/** 读取到指数后面的数字 */
 	private static final int NUMBER_EXP_DIGIT = 7;
 	
-	/** JSON字符串读取流 */
-	private final Reader mReader;
+	/** 乘以10后可能溢出的最小整数 */
+	private static final long MIN_INCOMPLETE_INTEGER = Long.MIN_VALUE / 10;
+	/** 略过结构：位于字符串外 */
+	private static final int SKIP_STRUCTURE = 0;
+	/** 略过结构：位于字符串内 */
+	private static final int SKIP_QUOTED = 1;
+	/** 略过结构：位于字符串的转义字符后 */
+	private static final int SKIP_ESCAPE = 2;
+	/** 略过结构：读取到'/'，可能为注释开头 */
+	private static final int SKIP_SLASH = 3;
+	/** 略过结构：位于多行注释内 */
+	private static final int SKIP_BLOCK_COMMENT = 4;
+	/** 略过结构：位于多行注释内，并读取到'*' */
+	private static final int SKIP_BLOCK_COMMENT_STAR = 5;
+	/** 略过结构：位于单行注释内 */
+	private static final int SKIP_LINE_COMMENT = 6;
+	/** 重置时可复用的最大缓存区大小，超出时不保留缓存区 */
+	private static final int MAX_REUSABLE_BUFFER_SIZE = 16 * 1024;
+	/** 可以精确表示为double的10的幂 */
+	private static final double[] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	
+	/** JSON字符串读取流，为null时整个文档即为缓存区 */
+	private Reader mReader;
+	/** 增量读取流，不为null时数据不足将回退并返回{@link JsonToken#NEED_MORE_INPUT} */
+	private Utf8FeedReader mFeedReader;
+	/** 增量读取时本次读取的开始位置，整理缓存区时需要保留之后的数据，-1表示未标记 */
+	private int mMarkPosition = -1;
+	/** 增量读取时缓存区已满，需要扩容后重新读取 */
+	private boolean isFeedBufferFull;
 	/** JSON字符串读取位置 */
 	private int mJsonPosition = 0;
 	
 	/** JSON字符串缓存区 */
-	private char[] mBuffer = new char[1024];
+	private char[] mBuffer;
+	/** 读取器自身的缓存区，重置时复用，为null时尚未分配 */
+	private char[] mReusableBuffer;
+	/** UTF-8字节解码读取流，重置时复用 */
+	private Utf8Reader mUtf8Reader;
 	/** 缓存区开始位置 */
 	private int mBufferPosition = 0;
 	/** 缓存区结束位置 */
@@ -46,6 +81,12 @@ public final class JsonReader implements Closeable {
 	private String[] mPathNames = new String[32];
 	/** 路径数组指数 */
 	private int[] mPathIndices = new int[32];
+	/** 未在键名表中找到的键名所在层级，键名仍在缓存区中，需要时才创建字符串，-1表示没有 */
+	private int mPendingNameDepth = -1;
+	/** 未找到的键名在缓存区中的位置 */
+	private int mPendingNamePosition;
+	/** 未找到的键名在缓存区中的长度 */
+	private int mPendingNameLength;
 	
 	{
 		// 初始栈顶数据
@@ -54,16 +95,108 @@ public final class JsonReader implements Closeable {
 	
 	/** 预存值 */
 	private String mNextValue;
+	/** 预存值在缓存区中的位置，-1表示预存值不在缓存区中 */
+	private int mValuePosition = -1;
+	/** 预存值在缓存区中的长度 */
+	private int mValueLength;
+	/** 预存值的哈希值，与{@link String#hashCode()}一致 */
+	private int mValueHash;
+	/** 预存值是否为long范围内的整数 */
+	private boolean isPeekedLong;
+	/** 预存的整数值 */
+	private long mPeekedLong;
+	/** 预存的布尔值 */
+	private boolean mPeekedBoolean;
 	/** 当前解析的值类型 */
 	private JsonToken mJsonToken = JsonToken.NONE;
 	
+	/** 略过结构时剩余的括号深度，0表示未在略过 */
+	private int mSkipDepth;
+	/** 略过结构时的状态 */
+	private int mSkipState;
+	/** 略过结构时当前字符串的引号 */
+	private char mSkipQuoted;
+	
 	/**
 	 * 构造方法
 	 *
 	 * @param jsonStr JSON字符串数据
 	 */
 	public JsonReader(String jsonStr) {
-		this(new StringReader(jsonStr));
+		this(jsonStr.toCharArray());
+	}
+	
+	/**
+	 * 构造方法，直接以字符数组作为缓存区，读取过程中不会修改该数组
+	 *
+	 * @param chars JSON字符数据
+	 */
+	public JsonReader(char[] chars) {
+		this(chars, 0, chars.length);
+	}
+	
+	/**
+	 * 构造方法，直接以字符数组作为缓存区，读取过程中不会修改该数组
+	 *
+	 * @param chars  JSON字符数据
+	 * @param offset 开始位置
+	 * @param length 数据长度
+	 */
+	public JsonReader(char[] chars, int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > chars.length) {
+			throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", size " + chars.length);
+		}
+		mReader = null;
+		mBuffer = chars;
+		mBufferPosition = offset;
+		mBufferLimit = offset + length;
+		// 如果存在位元组顺序标志，则跳过
+		if (length > 0 && chars[offset] == '\ufeff') {
+			mBufferPosition++;
+			mJsonPosition++;
+		}
+	}
+	
+	/**
+	 * 构造方法，直接解码UTF-8字节数据
+	 *
+	 * @param bytes JSON字节数据
+	 */
+	public JsonReader(byte[] bytes) {
+		this(bytes, 0, bytes.length);
+	}
+	
+	/**
+	 * 构造方法，直接解码UTF-8字节数据
+	 *
+	 * @param bytes  JSON字节数据
+	 * @param offset 开始位置
+	 * @param length 数据长度
+	 */
+	public JsonReader(byte[] bytes, int offset, int length) {
+		this(new Utf8Reader(bytes, offset, length));
+		mUtf8Reader = (Utf8Reader) mReader;
+	}
+	
+	/**
+	 * 构造方法，直接解码UTF-8字节读取流
+	 *
+	 * @param inputStream JSON字节读取流
+	 */
+	public JsonReader(InputStream inputStream) {
+		this(new Utf8Reader(inputStream));
+		mUtf8Reader = (Utf8Reader) mReader;
+	}
+	
+	/**
+	 * 构造方法，以内存映射的方式读取UTF-8文件，适用于大文件解析。
+	 * 读取结束后需要调用{@link #close()}关闭文件，映射的内存由GC释放。
+	 *
+	 * @param file JSON文件
+	 * @throws JsonException 错误信息
+	 */
+	public JsonReader(File file) throws JsonException {
+		this(openMappedFile(file), 64 * 1024);
 	}
 	
 	/**
@@ -72,10 +205,149 @@ public final class JsonReader implements Closeable {
 	 * @param reader JSON数据读取流
 	 */
 	public JsonReader(Reader reader) {
+		this(reader, 1024);
+	}
+	
+	/**
+	 * 构造方法
+	 *
+	 * @param reader     JSON数据读取流
+	 * @param bufferSize 缓存区大小
+	 */
+	private JsonReader(Reader reader, int bufferSize) {
 		if (reader == null) {
 			throw new NullPointerException("reader can't be null");
 		}
 		mReader = reader;
+		mBuffer = mReusableBuffer = new char[bufferSize];
+	}
+	
+	/**
+	 * 构造方法，增量读取，数据不足时不阻塞
+	 *
+	 * @param feedReader 增量读取流
+	 */
+	JsonReader(Utf8FeedReader feedReader) {
+		this(feedReader, 1024);
+		mFeedReader = feedReader;
+	}
+	
+	private static Reader openMappedFile(File file) throws JsonException {
+		if (file == null) {
+			throw new NullPointerException("file can't be null");
+		}
+		try {
+			return new MappedFileReader(file);
+		} catch (IOException e) {
+			throw new JsonException(e);
+		}
+	}
+	
+	/**
+	 * 重置读取器，复用缓存区及解析栈读取新的数据流
+	 *
+	 * @param reader JSON数据读取流
+	 */
+	public void reset(Reader reader) {
+		if (reader == null) {
+			throw new NullPointerException("reader can't be null");
+		}
+		if (mReusableBuffer == null) {
+			mReusableBuffer = new char[1024];
+		}
+		resetState(reader, mReusableBuffer, 0);
+	}
+	
+	/**
+	 * 重置读取器，复用缓存区及解析栈读取新的UTF-8字节数据
+	 *
+	 * @param bytes JSON字节数据
+	 */
+	public void reset(byte[] bytes) {
+		if (mUtf8Reader == null) {
+			mUtf8Reader = new Utf8Reader(bytes, 0, bytes.length);
+		} else {
+			mUtf8Reader.reset(bytes, 0, bytes.length);
+		}
+		reset(mUtf8Reader);
+	}
+	
+	/**
+	 * 重置读取器，复用缓存区及解析栈读取新的UTF-8字节读取流
+	 *
+	 * @param inputStream JSON字节读取流
+	 */
+	public void reset(InputStream inputStream) {
+		if (inputStream == null) {
+			throw new NullPointerException("inputStream can't be null");
+		}
+		if (mUtf8Reader == null) {
+			mUtf8Reader = new Utf8Reader(inputStream);
+		} else {
+			mUtf8Reader.reset(inputStream);
+		}
+		reset(mUtf8Reader);
+	}
+	
+	/**
+	 * 重置读取器，复用缓存区及解析栈读取新的JSON字符串
+	 *
+	 * @param jsonStr JSON字符串数据
+	 */
+	public void reset(String jsonStr) {
+		int length = jsonStr.length();
+		char[] buffer = mReusableBuffer;
+		if ((buffer == null || buffer.length < length) && length <= MAX_REUSABLE_BUFFER_SIZE) {
+			int size = buffer == null ? 1024 : buffer.length * 2;
+			buffer = mReusableBuffer = new char[Math.min(Math.max(size, length), MAX_REUSABLE_BUFFER_SIZE)];
+		}
+		if (buffer == null || buffer.length < length) {
+			// 超出可复用大小的字符串不保留缓存区
+			buffer = jsonStr.toCharArray();
+		} else {
+			jsonStr.getChars(0, length, buffer, 0);
+		}
+		
+		resetState(null, buffer, length);
+		// 如果存在位元组顺序标志，则跳过
+		if (length > 0 && buffer[0] == '\ufeff') {
+			mBufferPosition++;
+			mJsonPosition++;
+		}
+	}
+	
+	/**
+	 * 重置读取状态
+	 *
+	 * @param reader      JSON数据读取流
+	 * @param buffer      缓存区
+	 * @param bufferLimit 缓存区结束位置
+	 */
+	private void resetState(Reader reader, char[] buffer, int bufferLimit) {
+		if (mUtf8Reader != null && reader != mUtf8Reader) {
+			// 不再使用UTF-8读取流，释放对数据的引用
+			mUtf8Reader.reset((InputStream) null);
+		}
+		mReader = reader;
+		mFeedReader = null;
+		mJsonPosition = 0;
+		mBuffer = buffer;
+		mBufferPosition = 0;
+		mBufferLimit = bufferLimit;
+		
+		Arrays.fill(mPathNames, null);
+		Arrays.fill(mPathIndices, 0);
+		mPendingNameDepth = -1;
+		mStackSize = 0;
+		mScopeStack[mStackSize++] = JsonScope.EMPTY_DOCUMENT;
+		
+		mNextValue = null;
+		mValuePosition = -1;
+		isPeekedLong = false;
+		mJsonToken = JsonToken.NONE;
+		mSkipDepth = 0;
+		mMarkPosition = -1;
+		isFeedBufferFull = false;
 	}
 	
 	/**
@@ -94,7 +366,7 @@ public final class JsonReader implements Closeable {
 			mPathIndices[mStackSize - 1] = 0;
 			mJsonToken = JsonToken.NONE;
 		} else {
-			throw syntaxException("Expected BEGIN_ARRAY but was " + next(), mNextValue);
+			throw syntaxException("Expected BEGIN_ARRAY but was " + next(), peekedValue());
 		}
 	}
 	
@@ -114,7 +386,7 @@ public final class JsonReader implements Closeable {
 			mPathIndices[mStackSize - 1]++;
 			mJsonToken = JsonToken.NONE;
 		} else {
-			throw syntaxException("Expected END_ARRAY but was " + next(), mNextValue);
+			throw syntaxException("Expected END_ARRAY but was " + next(), peekedValue());
 		}
 	}
 	
@@ -133,7 +405,7 @@ public final class JsonReader implements Closeable {
 			push(JsonScope.EMPTY_OBJECT);
 			mJsonToken = JsonToken.NONE;
 		} else {
-			throw syntaxException("Expected BEGIN_OBJECT but was " + next(), mNextValue);
+			throw syntaxException("Expected BEGIN_OBJECT but was " + next(), peekedValue());
 		}
 	}
 	
@@ -151,10 +423,13 @@ public final class JsonReader implements Closeable {
 		if (token == JsonToken.END_OBJECT) {
 			mStackSize--;
 			mPathNames[mStackSize] = null;
+			if (mPendingNameDepth >= mStackSize) {
+				mPendingNameDepth = -1;
+			}
 			mPathIndices[mStackSize - 1]++;
 			mJsonToken = JsonToken.NONE;
 		} else {
-			throw syntaxException("Expected END_OBJECT but was " + next(), mNextValue);
+			throw syntaxException("Expected END_OBJECT but was " + next(), peekedValue());
 		}
 	}
 	
@@ -189,16 +464,74 @@ public final class JsonReader implements Closeable {
 		
 		String result;
 		if (token == JsonToken.NAME) {
-			result = mNextValue;
+			result = peekedValue();
 		} else {
-			throw syntaxException("Expected a name but was " + next(), mNextValue);
+			throw syntaxException("Expected a name but was " + next(), peekedValue());
 		}
 		
+		clearPeekedValue();
 		mJsonToken = JsonToken.NONE;
-		mPathNames[mStackSize - 1] = result;
+		setPathName(result);
 		return result;
 	}
 	
+	/**
+	 * 读取键名，并在键名表中查找。键名位于缓存区内时直接比较缓存区字符，不创建字符串。
+	 *
+	 * @param nameTable 键名表
+	 * @return 键名在键名表中的下标，-1表示不存在
+	 * @throws JsonException 错误信息
+	 */
+	public int nextName(JsonNameTable nameTable) throws JsonException {
+		return nextName(nameTable, -1);
+	}
+	
+	/**
+	 * 读取键名，并在键名表中查找。先与预测的键名比较，适用于键名顺序基本固定的数据。
+	 *
+	 * @param nameTable     键名表
+	 * @param expectedIndex 预测的键名下标，-1表示不预测
+	 * @return 键名在键名表中的下标，-1表示不存在
+	 * @throws JsonException 错误信息
+	 */
+	public int nextName(JsonNameTable nameTable, int expectedIndex) throws JsonException {
+		JsonToken token = mJsonToken;
+		if (token == JsonToken.NONE) {
+			token = doPeek();
+		}
+		
+		if (token != JsonToken.NAME) {
+			throw syntaxException("Expected a name but was " + next(), peekedValue());
+		}
+		
+		int index;
+		String name = null;
+		if (mValuePosition != -1) {
+			index = nameTable.find(mBuffer, mValuePosition, mValueLength, mValueHash, expectedIndex);
+			if (index == -1) {
+				// 未找到的键名只记录位置，获取路径时再创建字符串
+				materializePendingName();
+				mPendingNameDepth = mStackSize - 1;
+				mPendingNamePosition = mValuePosition;
+				mPendingNameLength = mValueLength;
+			}
+		} else {
+			name = peekedValue();
+			index = nameTable.find(name);
+		}
+		
+		clearPeekedValue();
+		mJsonToken = JsonToken.NONE;
+		if (index != -1) {
+			setPathName(nameTable.getName(index));
+		} else if (name != null) {
+			setPathName(name);
+		} else {
+			mPathNames[mStackSize - 1] = null;
+		}
+		return index;
+	}
+	
 	public void nameToValue() throws JsonException {
 		JsonToken token = mJsonToken;
 		if (token == JsonToken.NONE) {
@@ -208,7 +541,7 @@ public final class JsonReader implements Closeable {
 		if (token == JsonToken.NAME) {
 			mJsonToken = JsonToken.STRING;
 		} else {
-			throw syntaxException("Expected a name but was " + next(), mNextValue);
+			throw syntaxException("Expected a name but was " + next(), peekedValue());
 		}
 	}
 	
@@ -226,12 +559,12 @@ public final class JsonReader implements Closeable {
 		
 		String result;
 		if (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN) {
-			result = mNextValue;
+			result = peekedValue();
 		} else {
-			throw syntaxException("Expected a string but was " + next(), mNextValue);
+			throw syntaxException("Expected a string but was " + next(), peekedValue());
 		}
 		
-		mNextValue = null;
+		clearPeekedValue();
 		mJsonToken = JsonToken.NONE;
 		mPathIndices[mStackSize - 1]++;
 		return result;
@@ -249,11 +582,11 @@ public final class JsonReader implements Closeable {
 		}
 		
 		if (token == JsonToken.NULL) {
-			mNextValue = null;
+			clearPeekedValue();
 			mJsonToken = JsonToken.NONE;
 			mPathIndices[mStackSize - 1]++;
 		} else {
-			throw syntaxException("Expected null but was " + next(), mNextValue);
+			throw syntaxException("Expected null but was " + next(), peekedValue());
 		}
 	}
 	
@@ -269,14 +602,14 @@ public final class JsonReader implements Closeable {
 			token = doPeek();
 		}
 		
-		Boolean result;
+		boolean result;
 		if (token == JsonToken.BOOLEAN) {
-			result = Boolean.parseBoolean(mNextValue);
+			result = mPeekedBoolean;
 		} else {
-			throw syntaxException("Expected a boolean but was " + next(), mNextValue);
+			throw syntaxException("Expected a boolean but was " + next(), peekedValue());
 		}
 		
-		mNextValue = null;
+		clearPeekedValue();
 		mJsonToken = JsonToken.NONE;
 		mPathIndices[mStackSize - 1]++;
 		return result;
@@ -296,17 +629,17 @@ public final class JsonReader implements Closeable {
 		
 		double result;
 		if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
-			result = new BigDecimal(mNextValue).doubleValue();
+			result = peekedDouble();
 		} else {
-			throw syntaxException("Expected a double but was " + next(), mNextValue);
+			throw syntaxException("Expected a double but was " + next(), peekedValue());
 		}
 		
 		// 判断是否非法
 		if ((Double.isNaN(result) || Double.isInfinite(result))) {
-			throw syntaxException("Json forbids NaN and infinities: " + result, mNextValue);
+			throw syntaxException("Json forbids NaN and infinities: " + result, peekedValue());
 		}
 		
-		mNextValue = null;
+		clearPeekedValue();
 		mJsonToken = JsonToken.NONE;
 		mPathIndices[mStackSize - 1]++;
 		return result;
@@ -326,14 +659,14 @@ public final class JsonReader implements Closeable {
 		
 		double asDouble;
 		if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
-			asDouble = Double.parseDouble(mNextValue);
+			asDouble = peekedDouble();
 		} else {
-			throw syntaxException("Expected a float but was " + next(), mNextValue);
+			throw syntaxException("Expected a float but was " + next(), peekedValue());
 		}
 		
 		float result = (float) asDouble;
 		
-		mNextValue = null;
+		clearPeekedValue();
 		mJsonToken = JsonToken.NONE;
 		mPathIndices[mStackSize - 1]++;
 		return result;
@@ -351,19 +684,20 @@ public final class JsonReader implements Closeable {
 			token = doPeek();
 		}
 		
-		double asDouble;
-		if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
-			asDouble = Double.parseDouble(mNextValue);
+		long result;
+		if (token == JsonToken.NUMBER && isPeekedLong) {
+			result = mPeekedLong;
+		} else if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+			double asDouble = peekedDouble();
+			result = (long) asDouble;
+			if (result != asDouble) { // 确认是否精度丢失
+				throw syntaxException("Expected an long but was " + next(), peekedValue());
+			}
 		} else {
-			throw syntaxException("Expected a long but was " + next(), mNextValue);
+			throw syntaxException("Expected a long but was " + next(), peekedValue());
 		}
 		
-		long result = (long) asDouble;
-		if (result != asDouble) { // 确认是否精度丢失
-			throw syntaxException("Expected an long but was " + next(), mNextValue);
-		}
-		
-		mNextValue = null;
+		clearPeekedValue();
 		mJsonToken = JsonToken.NONE;
 		mPathIndices[mStackSize - 1]++;
 		return result;
@@ -381,19 +715,23 @@ public final class JsonReader implements Closeable {
 			token = doPeek();
 		}
 		
-		double asDouble;
-		if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
-			asDouble = Double.parseDouble(mNextValue);
+		int result;
+		if (token == JsonToken.NUMBER && isPeekedLong) {
+			result = (int) mPeekedLong;
+			if (result != mPeekedLong) { // 确认是否精度丢失
+				throw syntaxException("Expected a int but was " + next(), peekedValue());
+			}
+		} else if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+			double asDouble = peekedDouble();
+			result = (int) asDouble;
+			if (result != asDouble) { // 确认是否精度丢失
+				throw syntaxException("Expected a int but was " + next(), peekedValue());
+			}
 		} else {
-			throw syntaxException("Expected a int but was " + next(), mNextValue);
-		}
-		
-		int result = (int) asDouble;
-		if (result != asDouble) { // 确认是否精度丢失
-			throw syntaxException("Expected a int but was " + next(), mNextValue);
+			throw syntaxException("Expected a int but was " + next(), peekedValue());
 		}
 		
-		mNextValue = null;
+		clearPeekedValue();
 		mJsonToken = JsonToken.NONE;
 		mPathIndices[mStackSize - 1]++;
 		return result;
@@ -405,36 +743,158 @@ public final class JsonReader implements Closeable {
 	 * @throws JsonException 错误信息
 	 */
 	public void skipValue() throws JsonException {
-		int count = 0;
-		do {
-			JsonToken token = mJsonToken;
-			if (token == JsonToken.NONE) {
-				token = doPeek();
-			}
-			
-			if (token == JsonToken.BEGIN_ARRAY) {
-				push(JsonScope.EMPTY_ARRAY);
-				count++;
-			} else if (token == JsonToken.BEGIN_OBJECT) {
-				push(JsonScope.EMPTY_OBJECT);
-				count++;
-			} else if (token == JsonToken.END_ARRAY) {
-				mStackSize--;
-				count--;
-			} else if (token == JsonToken.END_OBJECT) {
-				mStackSize--;
-				count--;
-			} else if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
-				mNextValue = null;
-			}
-			
+		JsonToken token = mJsonToken;
+		if (token == JsonToken.NONE) {
+			token = doPeek();
+		}
+		
+		if (token == JsonToken.BEGIN_ARRAY || token == JsonToken.BEGIN_OBJECT) {
+			// 直接扫描缓存区至对应的结束括号，不解析其中的键和值
 			mJsonToken = JsonToken.NONE;
-		} while (count != 0);
+			mSkipDepth = 1;
+			mSkipState = SKIP_STRUCTURE;
+			skipStructure();
+		} else {
+			int count = 0;
+			do {
+				token = mJsonToken;
+				if (token == JsonToken.NONE) {
+					token = doPeek();
+				}
+				
+				if (token == JsonToken.BEGIN_ARRAY) {
+					push(JsonScope.EMPTY_ARRAY);
+					count++;
+				} else if (token == JsonToken.BEGIN_OBJECT) {
+					push(JsonScope.EMPTY_OBJECT);
+					count++;
+				} else if (token == JsonToken.END_ARRAY) {
+					mStackSize--;
+					count--;
+				} else if (token == JsonToken.END_OBJECT) {
+					mStackSize--;
+					count--;
+				} else if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+					clearPeekedValue();
+				}
+				
+				mJsonToken = JsonToken.NONE;
+			} while (count != 0);
+		}
 		
-		mPathNames[mStackSize - 1] = "null";
+		setPathName("null");
 		mPathIndices[mStackSize - 1]++;
 	}
 	
+	/**
+	 * 略过已读取开始括号的对象或数组，只追踪引号、转义字符、注释及括号深度，不创建任何字符串
+	 *
+	 * @throws JsonException 错误信息
+	 */
+	private void skipStructure() throws JsonException {
+		char[] buffer = mBuffer;
+		int bufferPosition = mBufferPosition;
+		int bufferLimit = mBufferLimit;
+		int depth = mSkipDepth;
+		int state = mSkipState;
+		char quoted = mSkipQuoted;
+		
+		while (true) {
+			if (bufferPosition == bufferLimit) {
+				mJsonPosition += bufferPosition - mBufferPosition;
+				mBufferPosition = bufferPosition;
+				// 增量读取时数据不足，保存略过状态以便继续
+				mSkipDepth = depth;
+				mSkipState = state;
+				mSkipQuoted = quoted;
+				if (!fillBuffer(1)) {
+					throw syntaxException("End of input", null);
+				}
+				bufferPosition = mBufferPosition;
+				bufferLimit = mBufferLimit;
+			}
+			
+			char character = buffer[bufferPosition++];
+			switch (state) {
+				case SKIP_STRUCTURE:
+					switch (character) {
+						case '"':
+						case '\'':
+							quoted = character;
+							state = SKIP_QUOTED;
+							break;
+						case '{':
+						case '[':
+							depth++;
+							break;
+						case '}':
+						case ']':
+							if (--depth == 0) {
+								mJsonPosition += bufferPosition - mBufferPosition;
+								mBufferPosition = bufferPosition;
+								mSkipDepth = 0;
+								return;
+							}
+							break;
+						case '/':
+							state = SKIP_SLASH;
+							break;
+						case '#':
+							state = SKIP_LINE_COMMENT;
+							break;
+					}
+					break;
+				case SKIP_QUOTED:
+					if (character == quoted) {
+						state = SKIP_STRUCTURE;
+					} else if (character == '\\') {
+						state = SKIP_ESCAPE;
+					} else {
+						// 快速扫描至引号或转义字符
+						while (bufferPosition < bufferLimit) {
+							character = buffer[bufferPosition];
+							if (character == quoted || character == '\\') {
+								break;
+							}
+							bufferPosition++;
+						}
+					}
+					break;
+				case SKIP_ESCAPE:
+					state = SKIP_QUOTED;
+					break;
+				case SKIP_SLASH:
+					if (character == '*') {
+						state = SKIP_BLOCK_COMMENT;
+					} else if (character == '/') {
+						state = SKIP_LINE_COMMENT;
+					} else {
+						// 非注释，重新处理该字符
+						state = SKIP_STRUCTURE;
+						bufferPosition--;
+					}
+					break;
+				case SKIP_BLOCK_COMMENT:
+					if (character == '*') {
+						state = SKIP_BLOCK_COMMENT_STAR;
+					}
+					break;
+				case SKIP_BLOCK_COMMENT_STAR:
+					if (character == '/') {
+						state = SKIP_STRUCTURE;
+					} else if (character != '*') {
+						state = SKIP_BLOCK_COMMENT;
+					}
+					break;
+				case SKIP_LINE_COMMENT:
+					if (character == '\n' || character == '\r') {
+						state = SKIP_STRUCTURE;
+					}
+					break;
+			}
+		}
+	}
+	
 	/**
 	 * 读取下个类型
 	 *
@@ -462,6 +922,8 @@ public final class JsonReader implements Closeable {
 	 * @throws JsonException 错误信息
 	 */
 	public JsonToken doPeek() throws JsonException {
+		mValuePosition = -1;
+		isPeekedLong = false;
 		int peekStack = mScopeStack[mStackSize - 1];
 		if (peekStack == JsonScope.EMPTY_DOCUMENT) {
 			// TODO 过滤不规范的开头
@@ -602,8 +1064,37 @@ public final class JsonReader implements Closeable {
 	 */
 	private JsonToken nextQuotedValue(char quoted) throws JsonException {
 		char[] buffer = mBuffer;
-		StringBuilder builder = new StringBuilder();
 		int hashCode = 0;
+		
+		// 引号结束前不存在转义字符，并且整个值都能载入缓存区时，只记录值的位置，延迟创建字符串
+		int index = 0;
+		scan:
+		while (true) {
+			int bufferPosition = mBufferPosition;
+			int bufferLimit = mBufferLimit;
+			for (; bufferPosition + index < bufferLimit; index++) {
+				char character = buffer[bufferPosition + index];
+				if (character == quoted) {
+					mValuePosition = bufferPosition;
+					mValueLength = index;
+					mValueHash = hashCode;
+					mNextValue = null;
+					mJsonPosition += index + 1;
+					mBufferPosition += index + 1;
+					return JsonToken.STRING;
+				} else if (character == '\\') {
+					break scan;
+				}
+				hashCode = (hashCode * 31) + character;
+			}
+			
+			// 值超出缓存区，读取更多数据后继续匹配
+			if (index + 1 > buffer.length || !fillBuffer(index + 1)) {
+				break;
+			}
+		}
+		
+		StringBuilder builder = new StringBuilder();
 		while (true) {
 			int bufferPosition = mBufferPosition;
 			int bufferLimit = mBufferLimit;
@@ -626,8 +1117,6 @@ public final class JsonReader implements Closeable {
 					bufferPosition = mBufferPosition;
 					bufferLimit = mBufferLimit;
 					start = bufferPosition;
-				} else {// 其他字符
-					hashCode = (hashCode * 31) + character;
 				}
 			}
 			
@@ -732,10 +1221,12 @@ public final class JsonReader implements Closeable {
 			keyword = "true";
 			keywordUpper = "TRUE";
 			token = JsonToken.BOOLEAN;
+			mPeekedBoolean = true;
 		} else if (character == 'f' || character == 'F') {
 			keyword = "false";
 			keywordUpper = "FALSE";
 			token = JsonToken.BOOLEAN;
+			mPeekedBoolean = false;
 		} else if (character == 'n' || character == 'N') {
 			keyword = "null";
 			keywordUpper = "NULL";
@@ -763,7 +1254,10 @@ public final class JsonReader implements Closeable {
 			return JsonToken.NONE;
 		}
 		
-		mNextValue = new String(mBuffer, mBufferPosition, length);
+		// 布尔值保存在mPeekedBoolean中，关键字文本仅记录在缓存区中的位置
+		mNextValue = null;
+		mValuePosition = mBufferPosition;
+		mValueLength = length;
 		mJsonPosition += length;
 		mBufferPosition += length;
 		return token;
@@ -783,7 +1277,9 @@ public final class JsonReader implements Closeable {
 		int index = 0;
 		
 		int last = NUMBER_NONE;
-		long value = 0;
+		long value = 0;// 以负数累计，避免Long.MIN_VALUE溢出
+		boolean negative = false;
+		boolean fitsInLong = true;
 		
 		for (; true; index++) {
 			if (bufferPosition + index == bufferLimit) {
@@ -797,6 +1293,7 @@ public final class JsonReader implements Closeable {
 			char character = buffer[bufferPosition + index];
 			if (character == '-') {
 				if (last == NUMBER_NONE) {
+					negative = true;
 					last = NUMBER_SIGN;
 					continue;
 				}
@@ -838,7 +1335,10 @@ public final class JsonReader implements Closeable {
 						return JsonToken.NONE;
 					}
 					
-					value = value * 10 - (character - '0');
+					long newValue = value * 10 - (character - '0');
+					fitsInLong &= value > MIN_INCOMPLETE_INTEGER
+							|| (value == MIN_INCOMPLETE_INTEGER && newValue < value);
+					value = newValue;
 				} else if (last == NUMBER_DOT) {
 					last = NUMBER_FRACTION_DIGIT;
 				} else if (last == NUMBER_EXP_E || last == NUMBER_EXP_SIGN) {
@@ -848,7 +1348,15 @@ public final class JsonReader implements Closeable {
 		}
 		
 		if (last == NUMBER_DIGIT || last == NUMBER_FRACTION_DIGIT || last == NUMBER_EXP_DIGIT) {
-			mNextValue = new String(mBuffer, mBufferPosition, index);
+			// 整数值直接保留，数字文本仅记录在缓存区中的位置
+			if (last == NUMBER_DIGIT && fitsInLong
+					&& (value != Long.MIN_VALUE || negative) && (value != 0 || !negative)) {
+				mPeekedLong = negative ? value : -value;
+				isPeekedLong = true;
+			}
+			mNextValue = null;
+			mValuePosition = mBufferPosition;
+			mValueLength = index;
 			mJsonPosition += index;
 			mBufferPosition += index;
 			return JsonToken.NUMBER;
@@ -1086,6 +1594,15 @@ public final class JsonReader implements Closeable {
 	 * @throws JsonException 错误信息
 	 */
 	private boolean fillBuffer(int minByte) throws JsonException {
+		if (mReader == null) {// 整个文档已在缓存区中
+			return false;
+		}
+		// 缓存区内容将被移动或覆盖
+		materializePendingName();
+		if (mFeedReader != null) {
+			return fillFeedBuffer(minByte);
+		}
+		
 		char[] buffer = mBuffer;
 		if (mBufferPosition != mBufferLimit) {// 将未读取的数据载入到缓存中
 			mBufferLimit -= mBufferPosition;
@@ -1118,6 +1635,106 @@ public final class JsonReader implements Closeable {
 		return false;
 	}
 	
+	/**
+	 * 增量读取时读取已写入的数据至缓存区，数据不足且未全部写入时抛出{@link NeedMoreInputException}
+	 *
+	 * @param minByte 最少缓存字节
+	 * @return true 缓存成功
+	 * <p>
+	 * false 数据已全部写入，缓存失败
+	 * @throws JsonException 错误信息
+	 */
+	private boolean fillFeedBuffer(int minByte) throws JsonException {
+		char[] buffer = mBuffer;
+		// 保留本次读取开始位置之后的数据，以便数据不足时回退
+		int keepPosition = mMarkPosition == -1 ? mBufferPosition : mMarkPosition;
+		if (keepPosition != 0) {
+			mBufferLimit -= keepPosition;
+			System.arraycopy(buffer, keepPosition, buffer, 0, mBufferLimit);
+			mBufferPosition -= keepPosition;
+			if (mMarkPosition != -1) {
+				mMarkPosition = 0;
+			}
+		}
+		
+		try {
+			while (mBufferLimit - mBufferPosition < minByte) {
+				if (mBufferLimit == buffer.length) {
+					isFeedBufferFull = true;
+					throw NeedMoreInputException.INSTANCE;
+				}
+				int total = mFeedReader.read(buffer, mBufferLimit, buffer.length - mBufferLimit);
+				if (total == -1) {
+					if (mFeedReader.isEnded()) {
+						return false;
+					}
+					throw NeedMoreInputException.INSTANCE;
+				}
+				mBufferLimit += total;
+			}
+		} catch (NeedMoreInputException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new JsonException(e);
+		}
+		return true;
+	}
+	
+	/**
+	 * 增量读取下个值类型，数据不足时回退至读取前的状态
+	 *
+	 * @return 值类型，数据不足时返回{@link JsonToken#NEED_MORE_INPUT}
+	 * @throws JsonException 错误信息
+	 */
+	JsonToken peekFeed() throws JsonException {
+		if (mSkipDepth != 0) {
+			try {
+				skipStructure();
+			} catch (NeedMoreInputException e) {
+				return JsonToken.NEED_MORE_INPUT;
+			}
+			setPathName("null");
+			mPathIndices[mStackSize - 1]++;
+		}
+		if (mJsonToken != JsonToken.NONE) {
+			return mJsonToken;
+		}
+		
+		int peekStack = mScopeStack[mStackSize - 1];
+		int jsonPosition = mJsonPosition;
+		while (true) {
+			mMarkPosition = mBufferPosition;
+			try {
+				return doPeek();
+			} catch (NeedMoreInputException e) {
+				mScopeStack[mStackSize - 1] = peekStack;
+				mBufferPosition = mMarkPosition;
+				mJsonPosition = jsonPosition;
+				clearPeekedValue();
+				if (!isFeedBufferFull) {
+					return JsonToken.NEED_MORE_INPUT;
+				}
+				// 单个值超出缓存区，扩容后重新读取
+				isFeedBufferFull = false;
+				mBuffer = Arrays.copyOf(mBuffer, mBuffer.length * 2);
+			} finally {
+				mMarkPosition = -1;
+			}
+		}
+	}
+	
+	/**
+	 * 增量读取时略过值，数据不足时在下次{@link #peekFeed()}时继续略过
+	 *
+	 * @throws JsonException 错误信息
+	 */
+	void skipFeedValue() throws JsonException {
+		try {
+			skipValue();
+		} catch (NeedMoreInputException ignored) {
+		}
+	}
+	
 	private void push(int newTop) {
 		if (mStackSize == mScopeStack.length) {
 			int[] newStack = new int[mStackSize * 2];
@@ -1135,6 +1752,160 @@ public final class JsonReader implements Closeable {
 		mScopeStack[mStackSize++] = newTop;
 	}
 	
+	/**
+	 * 设置当前层级的路径名称
+	 *
+	 * @param name 路径名称
+	 */
+	private void setPathName(String name) {
+		int depth = mStackSize - 1;
+		mPathNames[depth] = name;
+		if (mPendingNameDepth == depth) {
+			mPendingNameDepth = -1;
+		}
+	}
+	
+	/**
+	 * 为仍在缓存区中的未找到键名创建字符串，写入路径名称
+	 */
+	private void materializePendingName() {
+		int depth = mPendingNameDepth;
+		if (depth != -1) {
+			if (depth < mStackSize) {
+				mPathNames[depth] = new String(mBuffer, mPendingNamePosition, mPendingNameLength);
+			}
+			mPendingNameDepth = -1;
+		}
+	}
+	
+	/**
+	 * 获取预存值，预存值位于缓存区内时才创建字符串
+	 *
+	 * @return 预存值
+	 */
+	private String peekedValue() {
+		if (mValuePosition != -1) {
+			mNextValue = new String(mBuffer, mValuePosition, mValueLength);
+			mValuePosition = -1;
+		}
+		return mNextValue;
+	}
+	
+	/**
+	 * 清除预存值
+	 */
+	private void clearPeekedValue() {
+		mNextValue = null;
+		mValuePosition = -1;
+		isPeekedLong = false;
+	}
+	
+	/**
+	 * 将预存值转换为double，整数及缓存区中的数字不创建字符串
+	 *
+	 * @return double值
+	 */
+	private double peekedDouble() {
+		if (isPeekedLong) {
+			return (double) mPeekedLong;
+		}
+		if (mValuePosition != -1) {
+			return parseDouble(mBuffer, mValuePosition, mValueLength);
+		}
+		return Double.parseDouble(mNextValue);
+	}
+	
+	/**
+	 * 解析字符数组中的数字。有效数字不超过18位，并且尾数与10的幂都能精确表示为double时，
+	 * 一次乘除运算即可得到正确舍入的结果(Clinger快速路径)，其余情况交由{@link Double#parseDouble(String)}处理。
+	 *
+	 * @param buffer 字符数组
+	 * @param offset 开始位置
+	 * @param length 长度
+	 * @return double值
+	 */
+	private static double parseDouble(char[] buffer, int offset, int length) {
+		int position = offset;
+		int limit = offset + length;
+		
+		boolean negative = false;
+		if (position < limit && buffer[position] == '-') {
+			negative = true;
+			position++;
+		}
+		
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		int integerStart = position;
+		while (position < limit && buffer[position] >= '0' && buffer[position] <= '9') {
+			mantissa = mantissa * 10 + (buffer[position++] - '0');
+			if (mantissa != 0) {
+				digits++;
+			}
+		}
+		boolean valid = position > integerStart;
+		
+		if (position < limit && buffer[position] == '.') {
+			position++;
+			int fractionStart = position;
+			while (position < limit && buffer[position] >= '0' && buffer[position] <= '9') {
+				mantissa = mantissa * 10 + (buffer[position++] - '0');
+				if (mantissa != 0) {
+					digits++;
+				}
+				exponent--;
+			}
+			valid &= position > fractionStart;
+		}
+		
+		if (valid && position < limit && (buffer[position] == 'e' || buffer[position] == 'E')) {
+			position++;
+			boolean exponentNegative = false;
+			if (position < limit && (buffer[position] == '-' || buffer[position] == '+')) {
+				exponentNegative = buffer[position++] == '-';
+			}
+			int exponentStart = position;
+			int exponentValue = 0;
+			while (position < limit && buffer[position] >= '0' && buffer[position] <= '9') {
+				if (exponentValue < 10000) {
+					exponentValue = exponentValue * 10 + (buffer[position] - '0');
+				}
+				position++;
+			}
+			valid = position > exponentStart;
+			exponent += exponentNegative ? -exponentValue : exponentValue;
+		}
+		
+		if (valid && position == limit && digits <= 18) {
+			if (mantissa == 0) {
+				return negative ? -0.0 : 0.0;
+			}
+			if (mantissa <= (1L << 53)) {
+				double result = Double.NaN;
+				if (exponent >= 0 && exponent <= 22) {
+					result = (double) mantissa * POWERS_OF_TEN[exponent];
+				} else if (exponent < 0 && exponent >= -22) {
+					result = (double) mantissa / POWERS_OF_TEN[-exponent];
+				} else if (exponent > 22 && exponent <= 22 + 15) {
+					// 尾数乘以10的幂后仍能精确表示时，可转换为上一种情况
+					long scaled = mantissa;
+					for (int index = 22; index < exponent && scaled <= (1L << 53); index++) {
+						scaled *= 10;
+					}
+					if (scaled <= (1L << 53)) {
+						result = (double) scaled * POWERS_OF_TEN[22];
+					}
+				}
+				if (!Double.isNaN(result)) {
+					return negative ? -result : result;
+				}
+			}
+		}
+		
+		return Double.parseDouble(new String(buffer, offset, length));
+	}
+	
 	/**
 	 * 语法错误信息构建
 	 *
@@ -1154,6 +1925,7 @@ public final class JsonReader implements Closeable {
 	}
 	
 	public String getCurrentPath() {
+		materializePendingName();
 		StringBuilder result = new StringBuilder().append(" at jsonStr path: $");
 		for (int index = 0, size = mStackSize; index < size; index++) {
 			switch (mScopeStack[index]) {
@@ -1183,6 +1955,26 @@ public final class JsonReader implements Closeable {
 		mJsonToken = JsonToken.NONE;
 		mScopeStack[0] = JsonScope.CLOSED;
 		mStackSize = 1;
-		mReader.close();
+		if (mReader != null) {
+			mReader.close();
+		}
+	}
+	
+	/**
+	 * 增量读取时数据不足的信号，不记录堆栈
+	 */
+	private static final class NeedMoreInputException extends JsonException {
+		private static final long serialVersionUID = 1L;
+		
+		static final NeedMoreInputException INSTANCE = new NeedMoreInputException();
+		
+		private NeedMoreInputException() {
+			super("need more input");
+		}
+		
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
 	}
 }
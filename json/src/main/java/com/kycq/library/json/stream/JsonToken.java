@@ -22,5 +22,7 @@ public enum JsonToken {
 	/** 无类型 */
 	NONE,
 	/** 文档结尾 */
-	END_DOCUMENT
+	END_DOCUMENT,
+	/** 增量读取时数据不足，需要写入更多数据，参见{@link JsonFeedReader} */
+	NEED_MORE_INPUT
 }
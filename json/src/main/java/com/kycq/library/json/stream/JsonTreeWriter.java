@@ -24,6 +24,7 @@ import com.kycq.library.json.JsonObject;
 import com.kycq.library.json.JsonPrimitive;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
@@ -97,6 +98,21 @@ public final class JsonTreeWriter extends JsonWriter {
 		}
 	}
 	
+	@Override
+	public void reset(Writer writer) {
+		throw new UnsupportedOperationException();
+	}
+	
+	@Override
+	public void reset(OutputStream outputStream) {
+		throw new UnsupportedOperationException();
+	}
+	
+	@Override
+	public void reset() {
+		throw new UnsupportedOperationException();
+	}
+	
 	@Override
 	public JsonWriter beginArray() throws JsonException {
 		JsonArray array = new JsonArray();
@@ -139,6 +155,11 @@ public final class JsonTreeWriter extends JsonWriter {
 		throw new IllegalStateException();
 	}
 	
+	@Override
+	public JsonWriter rawName(JsonEncodedName name) throws JsonException {
+		return name(name.getName());
+	}
+	
 	@Override
 	public JsonWriter name(String name) throws JsonException {
 		if (stack.isEmpty() || pendingName != null) {
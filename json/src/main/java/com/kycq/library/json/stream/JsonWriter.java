@@ -5,9 +5,19 @@ import com.kycq.library.json.JsonException;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.util.Arrays;
 
 public class JsonWriter implements Flushable, Closeable {
+	/** 严格转义，仅转义JSON规范要求的引号、反斜杠及控制字符 */
+	public static final int ESCAPE_STRICT = 0;
+	/** HTML安全转义，额外转义HTML特殊字符及U+2028、U+2029，默认模式 */
+	public static final int ESCAPE_HTML_SAFE = 1;
+	/** ASCII转义，在严格转义的基础上将所有非ASCII字符转义为Unicode转义序列 */
+	public static final int ESCAPE_ASCII = 2;
+	
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 	private static final String[] REPLACEMENT_CHARS;
 	private static final String[] HTML_SAFE_REPLACEMENT_CHARS;
 	
@@ -32,10 +42,22 @@ public class JsonWriter implements Flushable, Closeable {
 	}
 	
 	/** 键值分割符 */
-	private static final String SEPARATOR = ":";
-	
-	/** JSON数据写入流 */
-	private final Writer mWriter;
+	private static final char SEPARATOR = ':';
+	/** 格式化时的默认缩进 */
+	private static final String DEFAULT_INDENT = "  ";
+	/** 默认缓存区大小 */
+	private static final int DEFAULT_BUFFER_SIZE = 1024;
+	/** 重置时可复用的最大缓存区大小，超出时重新分配默认大小的缓存区 */
+	private static final int MAX_REUSABLE_BUFFER_SIZE = 32 * 1024;
+	
+	/** JSON数据写入流，为null时数据保留在缓存区中 */
+	private Writer mWriter;
+	/** UTF-8字节写入流，以字节输出流构造或重置时复用 */
+	private Utf8Writer mUtf8Writer;
+	/** 输出缓存区 */
+	private char[] mBuffer = new char[DEFAULT_BUFFER_SIZE];
+	/** 缓存区写入位置 */
+	private int mBufferPosition;
 	
 	/** 解析栈 */
 	private int[] mScopeStack = new int[32];
@@ -49,8 +71,33 @@ public class JsonWriter implements Flushable, Closeable {
 	
 	/** 当前写入键 */
 	private String mWriteName;
+	/** 当前写入的预先编码的键，为null时需要转义mWriteName */
+	private JsonEncodedName mWriteEncodedName;
+	
+	/** 缩进字符串，空字符串表示紧凑输出 */
+	private String mIndent = DEFAULT_INDENT;
+	/** 预先计算的换行及缩进字符 */
+	private char[] mNewline;
+	
+	/** 转义模式 */
+	private int mEscapeMode = ESCAPE_HTML_SAFE;
+	/** 当前转义模式下ASCII字符的替换字符串 */
+	private String[] mReplacements = HTML_SAFE_REPLACEMENT_CHARS;
+	
+	/**
+	 * 构造方法，数据保留在缓存区中，通过{@link #getJsonString()}获取
+	 */
+	public JsonWriter() {
+	}
 	
-	private boolean isReformat = true;
+	/**
+	 * 构造方法，数据保留在缓存区中，通过{@link #getJsonString()}获取
+	 *
+	 * @param isReformat 是否格式化
+	 */
+	public JsonWriter(boolean isReformat) {
+		setIndent(isReformat ? DEFAULT_INDENT : "");
+	}
 	
 	/**
 	 * 构造方法
@@ -64,6 +111,18 @@ public class JsonWriter implements Flushable, Closeable {
 		mWriter = writer;
 	}
 	
+	/**
+	 * 构造方法，直接以UTF-8编码输出字节
+	 *
+	 * @param outputStream JSON字节输出流
+	 */
+	public JsonWriter(OutputStream outputStream) {
+		if (outputStream == null) {
+			throw new NullPointerException("outputStream can't be null");
+		}
+		mWriter = mUtf8Writer = new Utf8Writer(outputStream);
+	}
+	
 	/**
 	 * 构造方法
 	 *
@@ -75,7 +134,143 @@ public class JsonWriter implements Flushable, Closeable {
 			throw new NullPointerException("writer can't be null");
 		}
 		mWriter = writer;
-		this.isReformat = isReformat;
+		setIndent(isReformat ? DEFAULT_INDENT : "");
+	}
+	
+	/**
+	 * 设置缩进，每层嵌套输出一次缩进字符串
+	 *
+	 * @param indent 缩进字符串，只能包含空格及制表符，空字符串表示紧凑输出
+	 */
+	public void setIndent(String indent) {
+		if (indent == null) {
+			throw new NullPointerException("indent can't be null");
+		}
+		if (indent.equals(mIndent)) {
+			return;
+		}
+		for (int index = 0, length = indent.length(); index < length; index++) {
+			char c = indent.charAt(index);
+			if (c != ' ' && c != '\t') {
+				throw new IllegalArgumentException("indent must be spaces or tabs: " + indent);
+			}
+		}
+		mIndent = indent;
+		mNewline = null;
+	}
+	
+	/**
+	 * 获取缩进
+	 *
+	 * @return 缩进字符串，空字符串表示紧凑输出
+	 */
+	public String getIndent() {
+		return mIndent;
+	}
+	
+	/**
+	 * 设置字符串转义模式
+	 *
+	 * @param escapeMode {@link #ESCAPE_STRICT}、{@link #ESCAPE_HTML_SAFE}或{@link #ESCAPE_ASCII}
+	 */
+	public void setEscapeMode(int escapeMode) {
+		switch (escapeMode) {
+			case ESCAPE_STRICT:
+			case ESCAPE_ASCII:
+				mReplacements = REPLACEMENT_CHARS;
+				break;
+			case ESCAPE_HTML_SAFE:
+				mReplacements = HTML_SAFE_REPLACEMENT_CHARS;
+				break;
+			default:
+				throw new IllegalArgumentException("unknown escape mode: " + escapeMode);
+		}
+		mEscapeMode = escapeMode;
+	}
+	
+	/**
+	 * 获取字符串转义模式
+	 *
+	 * @return 转义模式
+	 */
+	public int getEscapeMode() {
+		return mEscapeMode;
+	}
+	
+	/**
+	 * 重置写入器，复用解析栈写入新的数据流
+	 *
+	 * @param writer JSON数据写入流
+	 */
+	public void reset(Writer writer) {
+		if (writer == null) {
+			throw new NullPointerException("writer can't be null");
+		}
+		resetState(writer);
+	}
+	
+	/**
+	 * 重置写入器，复用缓存区及解析栈，直接以UTF-8编码输出字节
+	 *
+	 * @param outputStream JSON字节输出流
+	 */
+	public void reset(OutputStream outputStream) {
+		if (outputStream == null) {
+			throw new NullPointerException("outputStream can't be null");
+		}
+		if (mUtf8Writer == null) {
+			mUtf8Writer = new Utf8Writer(outputStream);
+		} else {
+			mUtf8Writer.reset(outputStream);
+		}
+		resetState(mUtf8Writer);
+	}
+	
+	/**
+	 * 重置写入器，复用缓存区及解析栈，数据保留在缓存区中
+	 */
+	public void reset() {
+		resetState(null);
+	}
+	
+	private void resetState(Writer writer) {
+		if (mUtf8Writer != null && writer != mUtf8Writer) {
+			// 释放对字节输出流的引用
+			mUtf8Writer.reset(null);
+		}
+		mWriter = writer;
+		if (mBuffer.length > MAX_REUSABLE_BUFFER_SIZE) {
+			mBuffer = new char[DEFAULT_BUFFER_SIZE];
+		}
+		mBufferPosition = 0;
+		mStackSize = 0;
+		push(JsonScope.EMPTY_DOCUMENT);
+		mWriteName = null;
+		mWriteEncodedName = null;
+	}
+	
+	/**
+	 * 获取缓存区中的JSON字符串，仅在未指定写入流时可用
+	 *
+	 * @return JSON字符串
+	 */
+	public String getJsonString() {
+		if (mWriter != null) {
+			throw new IllegalStateException("JsonWriter has a writer");
+		}
+		return new String(mBuffer, 0, mBufferPosition);
+	}
+	
+	/**
+	 * 获取缓存区中的JSON数据的UTF-8字节，仅在未指定写入流时可用
+	 *
+	 * @return UTF-8字节数据
+	 */
+	public byte[] getJsonBytes() {
+		if (mWriter != null) {
+			throw new IllegalStateException("JsonWriter has a writer");
+		}
+		return Utf8Writer.encode(mBuffer, 0, mBufferPosition);
 	}
 	
 	/**
@@ -87,7 +282,7 @@ public class JsonWriter implements Flushable, Closeable {
 		writeName();
 		beforeValue();
 		push(JsonScope.EMPTY_ARRAY);
-		write("[");
+		write('[');
 		return this;
 	}
 	
@@ -109,7 +304,8 @@ public class JsonWriter implements Flushable, Closeable {
 		if (peekStack == JsonScope.NONEMPTY_ARRAY) {
 			newline();
 		}
-		write("]");
+		write(']');
+		afterValue();
 		return this;
 	}
 	
@@ -122,7 +318,7 @@ public class JsonWriter implements Flushable, Closeable {
 		writeName();
 		beforeValue();
 		push(JsonScope.EMPTY_OBJECT);
-		write("{");
+		write('{');
 		return this;
 	}
 	
@@ -144,7 +340,8 @@ public class JsonWriter implements Flushable, Closeable {
 		if (peekStack == JsonScope.NONEMPTY_OBJECT) {
 			newline();
 		}
-		write("}");
+		write('}');
+		afterValue();
 		return this;
 	}
 	
@@ -168,6 +365,20 @@ public class JsonWriter implements Flushable, Closeable {
 		return this;
 	}
 	
+	/**
+	 * 写入预先编码的键名，直接复制带引号的键名
+	 *
+	 * @param name 预先编码的键名
+	 * @throws JsonException 错误信息
+	 */
+	public JsonWriter rawName(JsonEncodedName name) throws JsonException {
+		name(name.mName);
+		if (name.mQuotedChars != null) {
+			mWriteEncodedName = name;
+		}
+		return this;
+	}
+	
 	/**
 	 * 写入空值
 	 *
@@ -177,6 +388,7 @@ public class JsonWriter implements Flushable, Closeable {
 		writeName();
 		beforeValue();
 		write("null");
+		afterValue();
 		return this;
 	}
 	
@@ -193,6 +405,7 @@ public class JsonWriter implements Flushable, Closeable {
 		writeName();
 		beforeValue();
 		safeWrite(value);
+		afterValue();
 		return this;
 	}
 	
@@ -206,6 +419,7 @@ public class JsonWriter implements Flushable, Closeable {
 		writeName();
 		beforeValue();
 		write(value ? "true" : "false");
+		afterValue();
 		return this;
 	}
 	
@@ -222,6 +436,7 @@ public class JsonWriter implements Flushable, Closeable {
 		writeName();
 		beforeValue();
 		write(value ? "true" : "false");
+		afterValue();
 		return this;
 	}
 	
@@ -237,7 +452,9 @@ public class JsonWriter implements Flushable, Closeable {
 		}
 		writeName();
 		beforeValue();
-		write(Double.toString(value));
+		ensureNumberBuffer();
+		mBufferPosition = NumberFormatter.writeDouble(value, mBuffer, mBufferPosition);
+		afterValue();
 		return this;
 	}
 	
@@ -250,7 +467,9 @@ public class JsonWriter implements Flushable, Closeable {
 	public JsonWriter value(long value) throws JsonException {
 		writeName();
 		beforeValue();
-		write(Long.toString(value));
+		ensureNumberBuffer();
+		mBufferPosition = NumberFormatter.writeLong(value, mBuffer, mBufferPosition);
+		afterValue();
 		return this;
 	}
 	
@@ -266,7 +485,19 @@ public class JsonWriter implements Flushable, Closeable {
 		}
 		writeName();
 		beforeValue();
-		write(value.toString());
+		Class<?> numberClass = value.getClass();
+		if (numberClass == Integer.class || numberClass == Long.class
+				|| numberClass == Short.class || numberClass == Byte.class) {
+			ensureNumberBuffer();
+			mBufferPosition = NumberFormatter.writeLong(value.longValue(), mBuffer, mBufferPosition);
+		} else if (numberClass == Double.class
+				&& !Double.isNaN(value.doubleValue()) && !Double.isInfinite(value.doubleValue())) {
+			ensureNumberBuffer();
+			mBufferPosition = NumberFormatter.writeDouble(value.doubleValue(), mBuffer, mBufferPosition);
+		} else {
+			write(value.toString());
+		}
+		afterValue();
 		return this;
 	}
 	
@@ -281,15 +512,29 @@ public class JsonWriter implements Flushable, Closeable {
 		}
 		
 		int peekStack = mScopeStack[mStackSize - 1];
+		JsonEncodedName encodedName = mWriteEncodedName;
 		if (peekStack == JsonScope.NONEMPTY_OBJECT) {
-			write(",");
+			if (encodedName != null && mIndent.length() == 0) {
+				// 紧凑输出时逗号与键名一次输出
+				write(encodedName.mCommaQuotedChars, encodedName.mCommaQuotedChars.length);
+				replaceTop(JsonScope.DANGLING_NAME);
+				mWriteName = null;
+				mWriteEncodedName = null;
+				return;
+			}
+			write(',');
 		} else if (peekStack != JsonScope.EMPTY_OBJECT) {
 			throw new IllegalStateException("Nesting problem.");
 		}
 		newline();
 		replaceTop(JsonScope.DANGLING_NAME);
-		safeWrite(mWriteName);
+		if (encodedName != null) {
+			write(encodedName.mQuotedChars, encodedName.mQuotedChars.length);
+		} else {
+			safeWrite(mWriteName);
+		}
 		mWriteName = null;
+		mWriteEncodedName = null;
 	}
 	
 	private void beforeValue() throws JsonException {
@@ -303,7 +548,7 @@ public class JsonWriter implements Flushable, Closeable {
 				newline();
 				break;
 			case JsonScope.NONEMPTY_ARRAY:
-				write(",");
+				write(',');
 				newline();
 				break;
 			case JsonScope.DANGLING_NAME:
@@ -322,11 +567,68 @@ public class JsonWriter implements Flushable, Closeable {
 	 * @throws JsonException 错误信息
 	 */
 	private void safeWrite(String value) throws JsonException {
-		String[] replacements = HTML_SAFE_REPLACEMENT_CHARS;
-		write("\"");
-		int last = 0;
 		int length = value.length();
-		for (int i = 0; i < length; i++) {
+		int start = 0;
+		if (mBufferPosition + length + 2 <= mBuffer.length || ensureBuffer(length + 2)) {
+			// 整体复制至缓存区后扫描，无需转义时一次完成输出
+			char[] buffer = mBuffer;
+			int position = mBufferPosition;
+			buffer[position++] = '"';
+			value.getChars(0, length, buffer, position);
+			int escapeIndex = indexOfEscape(buffer, position, position + length);
+			if (escapeIndex == -1) {
+				buffer[position + length] = '"';
+				mBufferPosition = position + length + 1;
+				return;
+			}
+			// 保留无需转义的部分，从首个转义字符继续
+			mBufferPosition = escapeIndex;
+			start = escapeIndex - position;
+		} else {
+			write('"');
+		}
+		escapeWrite(value, start, length);
+		write('"');
+	}
+	
+	/**
+	 * 查找首个需要转义的字符
+	 *
+	 * @param chars 字符数组
+	 * @param start 开始位置
+	 * @param end   结束位置
+	 * @return 字符位置，-1表示无需转义
+	 */
+	private int indexOfEscape(char[] chars, int start, int end) {
+		String[] replacements = mReplacements;
+		int escapeMode = mEscapeMode;
+		for (int index = start; index < end; index++) {
+			char c = chars[index];
+			if (c < 128) {
+				if (replacements[c] != null) {
+					return index;
+				}
+			} else if (escapeMode == ESCAPE_ASCII
+					|| escapeMode == ESCAPE_HTML_SAFE && (c == '\u2028' || c == '\u2029')) {
+				return index;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * 逐个字符转义输出，连续的无需转义字符一次输出
+	 *
+	 * @param value  字符串值
+	 * @param start  开始位置
+	 * @param length 字符串长度
+	 * @throws JsonException 错误信息
+	 */
+	private void escapeWrite(String value, int start, int length) throws JsonException {
+		String[] replacements = mReplacements;
+		int escapeMode = mEscapeMode;
+		int last = start;
+		for (int i = start; i < length; i++) {
 			char c = value.charAt(i);
 			String replacement;
 			if (c < 128) {
@@ -334,6 +636,10 @@ public class JsonWriter implements Flushable, Closeable {
 				if (replacement == null) {
 					continue;
 				}
+			} else if (escapeMode == ESCAPE_ASCII) {
+				replacement = null;
+			} else if (escapeMode == ESCAPE_STRICT) {
+				continue;
 			} else if (c == '\u2028') {
 				replacement = "\\u2028";
 			} else if (c == '\u2029') {
@@ -344,23 +650,96 @@ public class JsonWriter implements Flushable, Closeable {
 			if (last < i) {
 				write(value, last, i - last);
 			}
-			write(replacement);
+			if (replacement != null) {
+				write(replacement);
+			} else {
+				write('\\');
+				write('u');
+				write(HEX_DIGITS[c >> 12]);
+				write(HEX_DIGITS[(c >> 8) & 0xf]);
+				write(HEX_DIGITS[(c >> 4) & 0xf]);
+				write(HEX_DIGITS[c & 0xf]);
+			}
 			last = i + 1;
 		}
 		if (last < length) {
 			write(value, last, length - last);
 		}
-		write("\"");
 	}
 	
 	private void newline() throws JsonException {
-		if (!isReformat) {
+		int indentLength = mIndent.length();
+		if (indentLength == 0) {
 			return;
 		}
-		write("\n");
-		for (int index = 1, size = mStackSize; index < size; index++) {
-			write("  ");
+		
+		// 换行符及当前深度的缩进一次输出
+		int length = 1 + indentLength * (mStackSize - 1);
+		char[] newline = mNewline;
+		if (newline == null || newline.length < length) {
+			int depth = Math.max(mStackSize - 1, 8);
+			if (newline != null) {
+				depth = Math.max(depth, (newline.length - 1) / indentLength * 2);
+			}
+			newline = new char[1 + indentLength * depth];
+			newline[0] = '\n';
+			for (int index = 0; index < depth; index++) {
+				mIndent.getChars(0, indentLength, newline, 1 + index * indentLength);
+			}
+			mNewline = newline;
+		}
+		write(newline, length);
+	}
+	
+	/**
+	 * 顶层值写入结束时，将缓存区输出至写入流
+	 *
+	 * @throws JsonException 错误信息
+	 */
+	private void afterValue() throws JsonException {
+		if (mStackSize == 1 && mWriter != null) {
+			flushBuffer();
+			if (mWriter == mUtf8Writer) {
+				try {
+					mUtf8Writer.flushBytes();
+				} catch (IOException e) {
+					throw new JsonException(e);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 输出字符
+	 *
+	 * @param c 字符
+	 * @throws JsonException 错误信息
+	 */
+	private void write(char c) throws JsonException {
+		if (mBufferPosition == mBuffer.length) {
+			ensureBuffer(1);
+		}
+		mBuffer[mBufferPosition++] = c;
+	}
+	
+	/**
+	 * 输出字符数组
+	 *
+	 * @param chars 字符数组
+	 * @param len   输出长度
+	 * @throws JsonException 错误信息
+	 */
+	private void write(char[] chars, int len) throws JsonException {
+		if (mBufferPosition + len > mBuffer.length && !ensureBuffer(len)) {
+			try {
+				mWriter.write(chars, 0, len);
+			} catch (IOException e) {
+				throw new JsonException(e);
+			}
+			return;
 		}
+		System.arraycopy(chars, 0, mBuffer, mBufferPosition, len);
+		mBufferPosition += len;
 	}
 	
 	/**
@@ -370,11 +749,7 @@ public class JsonWriter implements Flushable, Closeable {
 	 * @throws JsonException 错误信息
 	 */
 	private void write(String str) throws JsonException {
-		try {
-			mWriter.write(str);
-		} catch (IOException e) {
-			throw new JsonException(e);
-		}
+		write(str, 0, str.length());
 	}
 	
 	/**
@@ -386,11 +761,63 @@ public class JsonWriter implements Flushable, Closeable {
 	 * @throws JsonException 错误信息
 	 */
 	private void write(String str, int off, int len) throws JsonException {
+		if (mBufferPosition + len > mBuffer.length && !ensureBuffer(len)) {
+			// 超出缓存区大小，直接输出至写入流
+			try {
+				mWriter.write(str, off, len);
+			} catch (IOException e) {
+				throw new JsonException(e);
+			}
+			return;
+		}
+		str.getChars(off, off + len, mBuffer, mBufferPosition);
+		mBufferPosition += len;
+	}
+	
+	/**
+	 * 确保缓存区足够直接写入数值
+	 *
+	 * @throws JsonException 错误信息
+	 */
+	private void ensureNumberBuffer() throws JsonException {
+		if (mBufferPosition + NumberFormatter.MAX_LENGTH > mBuffer.length) {
+			ensureBuffer(NumberFormatter.MAX_LENGTH);
+		}
+	}
+	
+	/**
+	 * 确保缓存区有足够的剩余空间，存在写入流时先输出缓存区，否则扩容
+	 *
+	 * @param length 所需长度
+	 * @return true 空间足够
+	 * <p>
+	 * false 所需长度超出缓存区大小，需要直接输出至写入流
+	 * @throws JsonException 错误信息
+	 */
+	private boolean ensureBuffer(int length) throws JsonException {
+		if (mWriter != null) {
+			flushBuffer();
+			return length <= mBuffer.length;
+		}
+		mBuffer = Arrays.copyOf(mBuffer, Math.max(mBuffer.length * 2, mBufferPosition + length));
+		return true;
+	}
+	
+	/**
+	 * 将缓存区输出至写入流
+	 *
+	 * @throws JsonException 错误信息
+	 */
+	private void flushBuffer() throws JsonException {
+		if (mBufferPosition == 0 || mWriter == null) {
+			return;
+		}
 		try {
-			mWriter.write(str, off, len);
+			mWriter.write(mBuffer, 0, mBufferPosition);
 		} catch (IOException e) {
 			throw new JsonException(e);
 		}
+		mBufferPosition = 0;
 	}
 	
 	private void push(int newTop) {
@@ -418,12 +845,18 @@ public class JsonWriter implements Flushable, Closeable {
 		if (mStackSize == 0) {
 			throw new IllegalStateException("JsonWriter is closed.");
 		}
-		mWriter.flush();
+		flushBuffer();
+		if (mWriter != null) {
+			mWriter.flush();
+		}
 	}
 	
 	@Override
 	public void close() throws IOException {
-		mWriter.close();
+		flushBuffer();
+		if (mWriter != null) {
+			mWriter.close();
+		}
 		
 		int size = mStackSize;
 		if (size > 1 || size == 1 && mScopeStack[size - 1] != JsonScope.NONEMPTY_DOCUMENT) {
@@ -0,0 +1,80 @@
+package com.kycq.library.json.stream;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 内存映射文件读取流，按窗口映射文件内容，超过映射窗口后重新映射下一段，避免逐次调用系统读取。
+ * <p>
+ * JsonReader只在字符缓存区中解析，因此映射窗口的字节仍需分段批量复制至64K的字节缓存区，
+ * 再由{@link Utf8Reader}解码至字符缓存区；批量复制即一次内存拷贝，开销低于逐字节访问映射缓存区。
+ * <p>
+ * Java没有公开的解除映射方法，映射窗口在不再被引用后由GC释放：映射下一个窗口或{@link #close()}时
+ * 即放弃对当前窗口的引用，同一时刻最多保留一个窗口。文件在{@link #close()}时关闭，
+ * 但在GC释放映射前，部分系统(例如Windows)仍不能删除或截断该文件。
+ */
+final class MappedFileReader extends Utf8Reader {
+	/** 映射窗口大小 */
+	private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+	
+	/** 文件读取流 */
+	private final FileInputStream mFileInputStream;
+	/** 文件通道 */
+	private final FileChannel mFileChannel;
+	/** 文件大小 */
+	private final long mFileSize;
+	
+	/** 下个映射窗口的开始位置 */
+	private long mMapPosition;
+	/** 当前映射窗口 */
+	private MappedByteBuffer mMappedBuffer;
+	
+	/**
+	 * 构造方法
+	 *
+	 * @param file JSON文件
+	 * @throws IOException 错误信息
+	 */
+	MappedFileReader(File file) throws IOException {
+		super(64 * 1024);
+		mFileInputStream = new FileInputStream(file);
+		mFileChannel = mFileInputStream.getChannel();
+		try {
+			mFileSize = mFileChannel.size();
+		} catch (IOException e) {
+			mFileInputStream.close();
+			throw e;
+		}
+	}
+	
+	@Override
+	int fillBytes(byte[] bytes, int offset, int length) throws IOException {
+		MappedByteBuffer mappedBuffer = mMappedBuffer;
+		if (mappedBuffer == null || !mappedBuffer.hasRemaining()) {
+			if (mMapPosition >= mFileSize) {
+				return -1;
+			}
+			// 映射下一个窗口，之前的窗口不再引用，由GC解除映射
+			long size = Math.min(WINDOW_SIZE, mFileSize - mMapPosition);
+			mappedBuffer = mFileChannel.map(FileChannel.MapMode.READ_ONLY, mMapPosition, size);
+			mMapPosition += size;
+			mMappedBuffer = mappedBuffer;
+		}
+		
+		// 批量复制至字节缓存区，解码时直接访问数组
+		int count = Math.min(length, mappedBuffer.remaining());
+		mappedBuffer.get(bytes, offset, count);
+		return count;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		super.close();
+		mMappedBuffer = null;
+		mMapPosition = mFileSize;
+		mFileInputStream.close();
+	}
+}
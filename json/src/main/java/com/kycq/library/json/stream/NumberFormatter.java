@@ -0,0 +1,345 @@
+package com.kycq.library.json.stream;
+
+import java.math.BigInteger;
+
+/**
+ * 数值格式化，直接将数字写入字符数组，不创建中间字符串。
+ * <p>
+ * 整数使用两位一组的数字表；double使用Schubfach算法生成可精确还原的最短十进制数字，
+ * 输出格式（普通或科学计数法）与{@link Double#toString(double)}一致。
+ */
+final class NumberFormatter {
+	/** 格式化数值所需的最大字符数 */
+	static final int MAX_LENGTH = 32;
+	
+	private static final char[] DIGIT_TENS = new char[100];
+	private static final char[] DIGIT_ONES = new char[100];
+	private static final char[] MIN_LONG_CHARS = Long.toString(Long.MIN_VALUE).toCharArray();
+	
+	static {
+		for (int index = 0; index < 100; index++) {
+			DIGIT_TENS[index] = (char) ('0' + index / 10);
+			DIGIT_ONES[index] = (char) ('0' + index % 10);
+		}
+	}
+	
+	/** double有效位数 */
+	private static final int P = 53;
+	/** 最小二进制指数 */
+	private static final int Q_MIN = -1074;
+	/** 规格化数的最小有效数 */
+	private static final long C_MIN = 1L << (P - 1);
+	/** 小于该值的非规格化有效数需要放大10倍计算 */
+	private static final long C_TINY = 3;
+	private static final long MASK_63 = (1L << 63) - 1;
+	
+	private NumberFormatter() {
+	}
+	
+	/**
+	 * 写入long值
+	 *
+	 * @param value    值
+	 * @param buffer   字符数组
+	 * @param position 写入位置
+	 * @return 写入后的位置
+	 */
+	static int writeLong(long value, char[] buffer, int position) {
+		if (value == Long.MIN_VALUE) {
+			System.arraycopy(MIN_LONG_CHARS, 0, buffer, position, MIN_LONG_CHARS.length);
+			return position + MIN_LONG_CHARS.length;
+		}
+		if (value < 0) {
+			buffer[position++] = '-';
+			value = -value;
+		}
+		int end = position + digitCount(value);
+		writeDigits(value, buffer, end);
+		return end;
+	}
+	
+	/**
+	 * 从结束位置向前写入非负整数的各位数字
+	 *
+	 * @param value  非负整数
+	 * @param buffer 字符数组
+	 * @param end    结束位置
+	 */
+	private static void writeDigits(long value, char[] buffer, int end) {
+		int index = end;
+		while (value > Integer.MAX_VALUE) {
+			long quotient = value / 100;
+			int remainder = (int) (value - quotient * 100);
+			value = quotient;
+			buffer[--index] = DIGIT_ONES[remainder];
+			buffer[--index] = DIGIT_TENS[remainder];
+		}
+		// 剩余部分使用int运算
+		int intValue = (int) value;
+		while (intValue >= 100) {
+			int quotient = intValue / 100;
+			int remainder = intValue - quotient * 100;
+			intValue = quotient;
+			buffer[--index] = DIGIT_ONES[remainder];
+			buffer[--index] = DIGIT_TENS[remainder];
+		}
+		if (intValue >= 10) {
+			buffer[--index] = DIGIT_ONES[intValue];
+			buffer[--index] = DIGIT_TENS[intValue];
+		} else {
+			buffer[--index] = (char) ('0' + intValue);
+		}
+	}
+	
+	/**
+	 * 计算非负整数的十进制位数
+	 *
+	 * @param value 非负整数
+	 * @return 位数
+	 */
+	private static int digitCount(long value) {
+		long power = 10;
+		for (int count = 1; count < 19; count++) {
+			if (value < power) {
+				return count;
+			}
+			power *= 10;
+		}
+		return 19;
+	}
+	
+	/**
+	 * 写入有限的double值
+	 *
+	 * @param value    有限值
+	 * @param buffer   字符数组
+	 * @param position 写入位置
+	 * @return 写入后的位置
+	 */
+	static int writeDouble(double value, char[] buffer, int position) {
+		long bits = Double.doubleToRawLongBits(value);
+		if (bits < 0) {
+			buffer[position++] = '-';
+		}
+		long t = bits & (C_MIN - 1);
+		int bq = (int) (bits >>> (P - 1)) & 0x7ff;
+		if (bq != 0) {
+			// 规格化数，mq = -q
+			int mq = -Q_MIN + 1 - bq;
+			long c = C_MIN | t;
+			if (0 < mq && mq < P) {
+				// 整数值直接输出
+				long f = c >> mq;
+				if (f << mq == c) {
+					return writeDecimal(f, 0, buffer, position);
+				}
+			}
+			return toDecimal(-mq, c, 0, buffer, position);
+		}
+		if (t != 0) {
+			// 非规格化数
+			return t < C_TINY
+					? toDecimal(Q_MIN, 10 * t, -1, buffer, position)
+					: toDecimal(Q_MIN, t, 0, buffer, position);
+		}
+		buffer[position++] = '0';
+		buffer[position++] = '.';
+		buffer[position++] = '0';
+		return position;
+	}
+	
+	/**
+	 * 计算c*2^q的最短十进制表示并写入
+	 *
+	 * @param q        二进制指数
+	 * @param c        有效数
+	 * @param dk       十进制指数修正
+	 * @param buffer   字符数组
+	 * @param position 写入位置
+	 * @return 写入后的位置
+	 */
+	private static int toDecimal(int q, long c, int dk, char[] buffer, int position) {
+		int out = (int) c & 0x1;
+		long cb = c << 2;
+		long cbr = cb + 2;
+		long cbl;
+		int k;
+		if (c != C_MIN || q == Q_MIN) {
+			cbl = cb - 2;
+			k = flog10pow2(q);
+		} else {
+			cbl = cb - 1;
+			k = flog10threeQuartersPow2(q);
+		}
+		int h = q + flog2pow10(-k) + 2;
+		
+		long[] table = PowerTable.G;
+		int tableIndex = (k - PowerTable.K_MIN) << 1;
+		long g1 = table[tableIndex];
+		long g0 = table[tableIndex + 1];
+		
+		long vb = roundOdd(g1, g0, cb << h);
+		long vbl = roundOdd(g1, g0, cbl << h);
+		long vbr = roundOdd(g1, g0, cbr << h);
+		
+		long s = vb >> 2;
+		if (s >= 100) {
+			// 尝试少一位有效数字
+			long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+			long tp10 = sp10 + 10;
+			boolean upin = vbl + out <= sp10 << 2;
+			boolean wpin = (tp10 << 2) + out <= vbr;
+			if (upin != wpin) {
+				return writeDecimal(upin ? sp10 : tp10, k, buffer, position);
+			}
+		}
+		
+		long t = s + 1;
+		boolean uin = vbl + out <= s << 2;
+		boolean win = (t << 2) + out <= vbr;
+		if (uin != win) {
+			return writeDecimal(uin ? s : t, k + dk, buffer, position);
+		}
+		long cmp = vb - (s + t << 1);
+		return writeDecimal(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buffer, position);
+	}
+	
+	/**
+	 * 按{@link Double#toString(double)}的格式写入f*10^e
+	 *
+	 * @param f        十进制有效数
+	 * @param e        十进制指数
+	 * @param buffer   字符数组
+	 * @param position 写入位置
+	 * @return 写入后的位置
+	 */
+	private static int writeDecimal(long f, int e, char[] buffer, int position) {
+		// 去除末尾的零
+		while (f % 10 == 0) {
+			f /= 10;
+			e++;
+		}
+		int length = digitCount(f);
+		int exponent = e + length - 1;
+		
+		if (exponent >= 0 && exponent < 7) {
+			int integerLength = exponent + 1;
+			if (length <= integerLength) {
+				// 整数值，补零后输出".0"
+				writeDigits(f, buffer, position + length);
+				position += length;
+				for (int index = length; index < integerLength; index++) {
+					buffer[position++] = '0';
+				}
+				buffer[position++] = '.';
+				buffer[position++] = '0';
+				return position;
+			}
+			// 先写入数字，再将整数部分前移一位插入小数点
+			writeDigits(f, buffer, position + 1 + length);
+			System.arraycopy(buffer, position + 1, buffer, position, integerLength);
+			buffer[position + integerLength] = '.';
+			return position + 1 + length;
+		}
+		if (exponent < 0 && exponent >= -3) {
+			buffer[position++] = '0';
+			buffer[position++] = '.';
+			for (int index = exponent + 1; index < 0; index++) {
+				buffer[position++] = '0';
+			}
+			writeDigits(f, buffer, position + length);
+			return position + length;
+		}
+		
+		// 科学计数法
+		writeDigits(f, buffer, position + 1 + length);
+		buffer[position] = buffer[position + 1];
+		buffer[position + 1] = '.';
+		position += 1 + length;
+		if (length == 1) {
+			buffer[position++] = '0';
+		}
+		buffer[position++] = 'E';
+		if (exponent < 0) {
+			buffer[position++] = '-';
+			exponent = -exponent;
+		}
+		int exponentLength = exponent >= 100 ? 3 : exponent >= 10 ? 2 : 1;
+		writeDigits(exponent, buffer, position + exponentLength);
+		return position + exponentLength;
+	}
+	
+	/**
+	 * 计算g*cp/2^127并向奇数舍入
+	 */
+	private static long roundOdd(long g1, long g0, long cp) {
+		long x1 = multiplyHigh(g0, cp);
+		long y0 = g1 * cp;
+		long y1 = multiplyHigh(g1, cp);
+		long z = (y0 >>> 1) + x1;
+		long vbp = y1 + (z >>> 63);
+		return vbp | (z & MASK_63) + MASK_63 >>> 63;
+	}
+	
+	/**
+	 * 计算128位乘积的高64位
+	 */
+	private static long multiplyHigh(long x, long y) {
+		long x1 = x >> 32;
+		long x2 = x & 0xffffffffL;
+		long y1 = y >> 32;
+		long y2 = y & 0xffffffffL;
+		long z2 = x2 * y2;
+		long t = x1 * y2 + (z2 >>> 32);
+		long z1 = t & 0xffffffffL;
+		long z0 = t >> 32;
+		z1 += x2 * y1;
+		return x1 * y1 + z0 + (z1 >> 32);
+	}
+	
+	/** floor(log10(2^q)) */
+	private static int flog10pow2(int q) {
+		return (int) (q * 661971961083L >> 41);
+	}
+	
+	/** floor(log10(3/4 * 2^q)) */
+	private static int flog10threeQuartersPow2(int q) {
+		return (int) (q * 661971961083L - 274743187321L >> 41);
+	}
+	
+	/** floor(log2(10^e)) */
+	private static int flog2pow10(int e) {
+		return (int) (e * 913124641741L >> 38);
+	}
+	
+	/**
+	 * 10的幂次表，首次格式化double时计算。
+	 * <p>
+	 * 对每个k，10^-k = β*2^r且2^125 <= β < 2^126，g = floor(β) + 1，
+	 * 依次保存g的高63位及低63位。
+	 */
+	private static final class PowerTable {
+		static final int K_MIN = -324;
+		static final int K_MAX = 292;
+		static final long[] G = new long[(K_MAX - K_MIN + 1) << 1];
+		
+		static {
+			BigInteger mask = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+			for (int k = K_MIN; k <= K_MAX; k++) {
+				BigInteger beta;
+				if (k <= 0) {
+					BigInteger power = BigInteger.TEN.pow(-k);
+					int shift = power.bitLength() - 126;
+					beta = shift >= 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+				} else {
+					BigInteger power = BigInteger.TEN.pow(k);
+					beta = BigInteger.ONE.shiftLeft(power.bitLength() + 125).divide(power);
+				}
+				BigInteger g = beta.add(BigInteger.ONE);
+				int index = (k - K_MIN) << 1;
+				G[index] = g.shiftRight(63).longValue();
+				G[index + 1] = g.and(mask).longValue();
+			}
+		}
+	}
+}
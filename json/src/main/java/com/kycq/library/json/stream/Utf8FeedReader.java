@@ -0,0 +1,160 @@
+package com.kycq.library.json.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 增量UTF-8字节解码读取流，字节数据由调用者分段写入，读取时不会阻塞。
+ * <p>
+ * 分段末尾不完整的多字节字符会暂存至下次写入，暂无数据时{@link #read(char[], int, int)}返回-1，
+ * 需要通过{@link #isEnded()}区分数据是否已全部写入。
+ */
+final class Utf8FeedReader extends Utf8Reader {
+	/** 分段末尾不完整的多字节字符 */
+	private final byte[] mCarryBytes = new byte[3];
+	/** 不完整的多字节字符长度 */
+	private int mCarryLength;
+	
+	/** 数据是否已全部写入 */
+	private boolean isEnded;
+	/** 是否已检查位元组顺序标志 */
+	private boolean isByteOrderMarkChecked;
+	
+	/**
+	 * 构造方法
+	 */
+	Utf8FeedReader() {
+		super(8192);
+	}
+	
+	@Override
+	int fillBytes(byte[] bytes, int offset, int length) throws IOException {
+		// 字节数据只由feed写入
+		return -1;
+	}
+	
+	/**
+	 * 写入字节数据
+	 *
+	 * @param bytes  UTF-8字节数据
+	 * @param offset 开始位置
+	 * @param length 数据长度
+	 */
+	void feed(byte[] bytes, int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > bytes.length) {
+			throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", size " + bytes.length);
+		}
+		int position = prepare(length);
+		System.arraycopy(bytes, offset, mBytes, position, length);
+		mByteLimit += length;
+		carryIncomplete();
+	}
+	
+	/**
+	 * 写入字节数据，读取字节缓存区的全部剩余字节
+	 *
+	 * @param byteBuffer UTF-8字节缓存区
+	 */
+	void feed(ByteBuffer byteBuffer) {
+		int length = byteBuffer.remaining();
+		int position = prepare(length);
+		byteBuffer.get(mBytes, position, length);
+		mByteLimit += length;
+		carryIncomplete();
+	}
+	
+	/**
+	 * 标记数据已全部写入，暂存的不完整字符按非法字节序列解码
+	 */
+	void end() {
+		if (isEnded) {
+			return;
+		}
+		prepare(0);
+		isEnded = true;
+	}
+	
+	/**
+	 * 数据是否已全部写入
+	 *
+	 * @return true 已全部写入
+	 */
+	boolean isEnded() {
+		return isEnded;
+	}
+	
+	/**
+	 * 整理字节缓存区，并将暂存的不完整字符放置到未读字节之后
+	 *
+	 * @param length 即将写入的字节数
+	 * @return 写入位置
+	 */
+	private int prepare(int length) {
+		if (isEnded) {
+			throw new IllegalStateException("input already ended");
+		}
+		
+		byte[] bytes = mBytes;
+		int remain = mByteLimit - mBytePosition;
+		int required = remain + mCarryLength + length;
+		if (required > bytes.length) {
+			byte[] newBytes = new byte[Math.max(bytes.length * 2, required)];
+			System.arraycopy(bytes, mBytePosition, newBytes, 0, remain);
+			mBytes = bytes = newBytes;
+		} else if (mBytePosition != 0) {
+			System.arraycopy(bytes, mBytePosition, bytes, 0, remain);
+		}
+		mBytePosition = 0;
+		mByteLimit = remain;
+		
+		System.arraycopy(mCarryBytes, 0, bytes, mByteLimit, mCarryLength);
+		mByteLimit += mCarryLength;
+		mCarryLength = 0;
+		return mByteLimit;
+	}
+	
+	/**
+	 * 将末尾不完整的多字节字符移至暂存区
+	 */
+	private void carryIncomplete() {
+		byte[] bytes = mBytes;
+		int byteLimit = mByteLimit;
+		int start = Math.max(mBytePosition, byteLimit - 3);
+		for (int position = byteLimit - 1; position >= start; position--) {
+			int lead = bytes[position] & 0xff;
+			if (lead < 0x80) {
+				return;
+			}
+			if (lead >= 0xc0) {
+				int size = lead >= 0xf0 ? 4 : lead >= 0xe0 ? 3 : 2;
+				if (byteLimit - position < size) {
+					mCarryLength = byteLimit - position;
+					System.arraycopy(bytes, position, mCarryBytes, 0, mCarryLength);
+					mByteLimit = position;
+				}
+				return;
+			}
+		}
+	}
+	
+	@Override
+	public int read(char[] buffer, int offset, int length) throws IOException {
+		int count = super.read(buffer, offset, length);
+		if (!isByteOrderMarkChecked && count > 0) {
+			isByteOrderMarkChecked = true;
+			// 如果存在位元组顺序标志，则跳过
+			if (buffer[offset] == '\ufeff') {
+				count--;
+				System.arraycopy(buffer, offset + 1, buffer, offset, count);
+			}
+		}
+		return count;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		super.close();
+		mCarryLength = 0;
+		isEnded = true;
+	}
+}
@@ -0,0 +1,276 @@
+package com.kycq.library.json.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * UTF-8字节解码读取流，直接将字节解码至调用者的字符缓存区，ASCII字符无需经过CharsetDecoder。
+ */
+class Utf8Reader extends Reader {
+	/** 非法字节序列的替换字符 */
+	private static final char REPLACEMENT_CHAR = '\ufffd';
+	
+	/** 字节读取流 */
+	private InputStream mInputStream;
+	/** 字节缓存区是否可重复填充 */
+	private boolean isRefillable;
+	/** 读取流使用的字节缓存区，重置时复用 */
+	private byte[] mStreamBytes;
+	
+	/** 字节缓存区 */
+	byte[] mBytes;
+	/** 字节缓存区开始位置 */
+	int mBytePosition;
+	/** 字节缓存区结束位置 */
+	int mByteLimit;
+	
+	/** 待输出的低位代理字符，0表示不存在 */
+	private char mPendingChar;
+	
+	/**
+	 * 构造方法
+	 *
+	 * @param bytes  UTF-8字节数据
+	 * @param offset 开始位置
+	 * @param length 数据长度
+	 */
+	Utf8Reader(byte[] bytes, int offset, int length) {
+		reset(bytes, offset, length);
+	}
+	
+	/**
+	 * 构造方法
+	 *
+	 * @param inputStream UTF-8字节读取流
+	 */
+	Utf8Reader(InputStream inputStream) {
+		reset(inputStream);
+	}
+	
+	/**
+	 * 构造方法，由子类重写{@link #fillBytes(byte[], int, int)}提供字节数据
+	 *
+	 * @param bufferSize 字节缓存区大小
+	 */
+	Utf8Reader(int bufferSize) {
+		mInputStream = null;
+		isRefillable = true;
+		mBytes = new byte[bufferSize];
+	}
+	
+	/**
+	 * 重置读取流，读取新的UTF-8字节数据
+	 *
+	 * @param bytes  UTF-8字节数据
+	 * @param offset 开始位置
+	 * @param length 数据长度
+	 */
+	void reset(byte[] bytes, int offset, int length) {
+		mInputStream = null;
+		isRefillable = false;
+		mBytes = bytes;
+		mBytePosition = offset;
+		mByteLimit = offset + length;
+		mPendingChar = 0;
+	}
+	
+	/**
+	 * 重置读取流，复用字节缓存区读取新的UTF-8字节读取流
+	 *
+	 * @param inputStream UTF-8字节读取流，null时释放对数据的引用
+	 */
+	void reset(InputStream inputStream) {
+		if (inputStream != null && mStreamBytes == null) {
+			mStreamBytes = new byte[8192];
+		}
+		mInputStream = inputStream;
+		isRefillable = inputStream != null;
+		mBytes = mStreamBytes;
+		mBytePosition = 0;
+		mByteLimit = 0;
+		mPendingChar = 0;
+	}
+	
+	/**
+	 * 读取字节数据至字节缓存区
+	 *
+	 * @param bytes  字节缓存区
+	 * @param offset 开始位置
+	 * @param length 最大读取长度
+	 * @return 读取的字节数，-1表示读取结束
+	 * @throws IOException 错误信息
+	 */
+	int fillBytes(byte[] bytes, int offset, int length) throws IOException {
+		if (mInputStream == null) {
+			return -1;
+		}
+		return mInputStream.read(bytes, offset, length);
+	}
+	
+	/**
+	 * 确保字节缓存区至少存在指定数量的未读字节
+	 *
+	 * @param minByte 最少字节数
+	 * @return true 满足要求
+	 * <p>
+	 * false 数据已读取结束
+	 * @throws IOException 错误信息
+	 */
+	private boolean ensureBytes(int minByte) throws IOException {
+		byte[] bytes = mBytes;
+		int remain = mByteLimit - mBytePosition;
+		if (remain >= minByte) {
+			return true;
+		}
+		if (!isRefillable) {
+			return false;
+		}
+		
+		if (mBytePosition != 0) {
+			System.arraycopy(bytes, mBytePosition, bytes, 0, remain);
+			mBytePosition = 0;
+			mByteLimit = remain;
+		}
+		
+		int total;
+		while ((total = fillBytes(bytes, mByteLimit, bytes.length - mByteLimit)) != -1) {
+			mByteLimit += total;
+			if (mByteLimit >= minByte) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	@Override
+	public int read(char[] buffer, int offset, int length) throws IOException {
+		if (length <= 0) {
+			return 0;
+		}
+		
+		int count = 0;
+		if (mPendingChar != 0) {
+			buffer[offset] = mPendingChar;
+			mPendingChar = 0;
+			count = 1;
+		}
+		
+		while (count < length) {
+			if (mBytePosition == mByteLimit) {
+				// 已解码部分字符时直接返回，避免阻塞
+				if (count > 0 || !ensureBytes(1)) {
+					break;
+				}
+			}
+			
+			byte[] bytes = mBytes;
+			int bytePosition = mBytePosition;
+			int byteLimit = mByteLimit;
+			
+			// ASCII快速路径
+			int asciiLimit = bytePosition + Math.min(byteLimit - bytePosition, length - count);
+			int charPosition = offset + count;
+			while (bytePosition < asciiLimit && bytes[bytePosition] >= 0) {
+				buffer[charPosition++] = (char) bytes[bytePosition++];
+			}
+			count = charPosition - offset;
+			mBytePosition = bytePosition;
+			if (count == length || bytePosition == byteLimit) {
+				continue;
+			}
+			
+			count += decodeMultiByte(buffer, offset + count, length - count);
+		}
+		
+		return count == 0 ? -1 : count;
+	}
+	
+	/**
+	 * 解码一个多字节字符
+	 *
+	 * @param buffer 字符缓存区
+	 * @param offset 写入位置
+	 * @param length 剩余可写入长度
+	 * @return 写入的字符数
+	 * @throws IOException 错误信息
+	 */
+	private int decodeMultiByte(char[] buffer, int offset, int length) throws IOException {
+		int lead = mBytes[mBytePosition] & 0xff;
+		int size;
+		int minValue;
+		int value;
+		if (lead >= 0xc2 && lead <= 0xdf) {
+			size = 2;
+			minValue = 0x80;
+			value = lead & 0x1f;
+		} else if (lead >= 0xe0 && lead <= 0xef) {
+			size = 3;
+			minValue = 0x800;
+			value = lead & 0x0f;
+		} else if (lead >= 0xf0 && lead <= 0xf4) {
+			size = 4;
+			minValue = 0x10000;
+			value = lead & 0x07;
+		} else {
+			mBytePosition++;
+			buffer[offset] = REPLACEMENT_CHAR;
+			return 1;
+		}
+		
+		if (mByteLimit - mBytePosition < size && !ensureBytes(size)) {
+			// 数据在多字节字符中途结束，只略过该字符已有的字节
+			int bytePosition = mBytePosition + 1;
+			while (bytePosition < mByteLimit && (mBytes[bytePosition] & 0xc0) == 0x80) {
+				bytePosition++;
+			}
+			mBytePosition = bytePosition;
+			buffer[offset] = REPLACEMENT_CHAR;
+			return 1;
+		}
+		
+		byte[] bytes = mBytes;
+		int bytePosition = mBytePosition;
+		for (int index = 1; index < size; index++) {
+			int next = bytes[bytePosition + index];
+			if ((next & 0xc0) != 0x80) {
+				mBytePosition = bytePosition + index;
+				buffer[offset] = REPLACEMENT_CHAR;
+				return 1;
+			}
+			value = (value << 6) | (next & 0x3f);
+		}
+		mBytePosition = bytePosition + size;
+		
+		if (value < minValue || value > 0x10ffff || (value >= 0xd800 && value <= 0xdfff)) {
+			buffer[offset] = REPLACEMENT_CHAR;
+			return 1;
+		}
+		
+		if (value < 0x10000) {
+			buffer[offset] = (char) value;
+			return 1;
+		}
+		
+		// 补充平面字符，拆分为代理对
+		value -= 0x10000;
+		char high = (char) (0xd800 | (value >>> 10));
+		char low = (char) (0xdc00 | (value & 0x3ff));
+		buffer[offset] = high;
+		if (length > 1) {
+			buffer[offset + 1] = low;
+			return 2;
+		}
+		mPendingChar = low;
+		return 1;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		mBytePosition = mByteLimit;
+		mPendingChar = 0;
+		if (mInputStream != null) {
+			mInputStream.close();
+		}
+	}
+}
@@ -0,0 +1,235 @@
+package com.kycq.library.json.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * UTF-8字节编码写入流，直接将字符编码至可复用的字节缓存区，ASCII字符无需经过CharsetEncoder。
+ */
+final class Utf8Writer extends Writer {
+	/** 无法编码的字符（不成对的代理字符）的替换字节 */
+	private static final byte REPLACEMENT_BYTE = '?';
+	
+	/** 字节输出流，为null时字节缓存区为固定大小的输出结果 */
+	private OutputStream mOutputStream;
+	/** 字节缓存区 */
+	private final byte[] mBytes;
+	/** 字节缓存区写入位置 */
+	private int mBytePosition;
+	/** 待配对的高位代理字符，0表示不存在 */
+	private char mPendingChar;
+	
+	/**
+	 * 构造方法
+	 *
+	 * @param outputStream 字节输出流
+	 */
+	Utf8Writer(OutputStream outputStream) {
+		mOutputStream = outputStream;
+		mBytes = new byte[8192];
+	}
+	
+	/**
+	 * 构造方法，直接编码至大小恰好的字节数组
+	 *
+	 * @param bytes 字节数组
+	 */
+	private Utf8Writer(byte[] bytes) {
+		mBytes = bytes;
+	}
+	
+	/**
+	 * 将字符编码为UTF-8字节数组
+	 *
+	 * @param chars  字符数组
+	 * @param offset 开始位置
+	 * @param length 字符长度
+	 * @return UTF-8字节数组
+	 */
+	static byte[] encode(char[] chars, int offset, int length) {
+		Utf8Writer writer = new Utf8Writer(new byte[encodedLength(chars, offset, length)]);
+		try {
+			writer.write(chars, offset, length);
+		} catch (IOException e) {
+			// 不存在字节输出流，不会抛出异常
+			throw new AssertionError(e);
+		}
+		writer.finish();
+		return writer.mBytes;
+	}
+	
+	/**
+	 * 计算字符编码为UTF-8后的字节数
+	 *
+	 * @param chars  字符数组
+	 * @param offset 开始位置
+	 * @param length 字符长度
+	 * @return 字节数
+	 */
+	private static int encodedLength(char[] chars, int offset, int length) {
+		int size = length;
+		for (int index = offset, end = offset + length; index < end; index++) {
+			char c = chars[index];
+			if (c < 0x80) {
+				continue;
+			}
+			if (c < 0x800) {
+				size += 1;
+			} else if (c < '\ud800' || c > '\udfff') {
+				size += 2;
+			} else if (c <= '\udbff' && index + 1 < end && chars[index + 1] >= '\udc00' && chars[index + 1] <= '\udfff') {
+				// 代理对共4个字节
+				size += 2;
+				index++;
+			}
+		}
+		return size;
+	}
+	
+	/**
+	 * 重置字节输出流，复用字节缓存区
+	 *
+	 * @param outputStream 字节输出流
+	 */
+	void reset(OutputStream outputStream) {
+		mOutputStream = outputStream;
+		mBytePosition = 0;
+		mPendingChar = 0;
+	}
+	
+	@Override
+	public void write(char[] chars, int offset, int length) throws IOException {
+		byte[] bytes = mBytes;
+		int bytePosition = mBytePosition;
+		int index = offset;
+		int end = offset + length;
+		
+		if (mPendingChar != 0 && index < end) {
+			// 上次写入以高位代理字符结束
+			bytePosition = ensureBytes(bytePosition);
+			char low = chars[index];
+			if (low >= '\udc00' && low <= '\udfff') {
+				bytePosition = encodeSurrogatePair(mPendingChar, low, bytes, bytePosition);
+				index++;
+			} else {
+				bytes[bytePosition++] = REPLACEMENT_BYTE;
+			}
+			mPendingChar = 0;
+		}
+		
+		while (index < end) {
+			bytePosition = ensureBytes(bytePosition);
+			char c = chars[index];
+			if (c < 0x80) {
+				// ASCII快速路径
+				int asciiLimit = Math.min(end, index + bytes.length - bytePosition);
+				do {
+					bytes[bytePosition++] = (byte) c;
+					index++;
+				} while (index < asciiLimit && (c = chars[index]) < 0x80);
+				continue;
+			}
+			
+			index++;
+			if (c < 0x800) {
+				bytes[bytePosition++] = (byte) (0xc0 | (c >> 6));
+				bytes[bytePosition++] = (byte) (0x80 | (c & 0x3f));
+			} else if (c < '\ud800' || c > '\udfff') {
+				bytes[bytePosition++] = (byte) (0xe0 | (c >> 12));
+				bytes[bytePosition++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+				bytes[bytePosition++] = (byte) (0x80 | (c & 0x3f));
+			} else if (c <= '\udbff') {
+				if (index == end) {
+					mPendingChar = c;
+					break;
+				}
+				char low = chars[index];
+				if (low >= '\udc00' && low <= '\udfff') {
+					bytePosition = encodeSurrogatePair(c, low, bytes, bytePosition);
+					index++;
+				} else {
+					bytes[bytePosition++] = REPLACEMENT_BYTE;
+				}
+			} else {
+				bytes[bytePosition++] = REPLACEMENT_BYTE;
+			}
+		}
+		mBytePosition = bytePosition;
+	}
+	
+	/**
+	 * 编码代理对
+	 *
+	 * @param high         高位代理字符
+	 * @param low          低位代理字符
+	 * @param bytes        字节缓存区
+	 * @param bytePosition 写入位置
+	 * @return 写入后的位置
+	 */
+	private static int encodeSurrogatePair(char high, char low, byte[] bytes, int bytePosition) {
+		int codePoint = 0x10000 + ((high - 0xd800) << 10) + (low - 0xdc00);
+		bytes[bytePosition++] = (byte) (0xf0 | (codePoint >> 18));
+		bytes[bytePosition++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+		bytes[bytePosition++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+		bytes[bytePosition++] = (byte) (0x80 | (codePoint & 0x3f));
+		return bytePosition;
+	}
+	
+	/**
+	 * 确保字节缓存区至少剩余一个字符的最大编码长度，不足时输出至字节输出流
+	 *
+	 * @param bytePosition 写入位置
+	 * @return 写入位置
+	 * @throws IOException 错误信息
+	 */
+	private int ensureBytes(int bytePosition) throws IOException {
+		if (mBytes.length - bytePosition >= 4 || mOutputStream == null) {
+			return bytePosition;
+		}
+		mBytePosition = bytePosition;
+		flushBytes();
+		return 0;
+	}
+	
+	/**
+	 * 将字节缓存区输出至字节输出流
+	 *
+	 * @throws IOException 错误信息
+	 */
+	void flushBytes() throws IOException {
+		if (mBytePosition == 0 || mOutputStream == null) {
+			return;
+		}
+		mOutputStream.write(mBytes, 0, mBytePosition);
+		mBytePosition = 0;
+	}
+	
+	/**
+	 * 写入结束，输出未配对的高位代理字符
+	 */
+	private void finish() {
+		if (mPendingChar != 0) {
+			mPendingChar = 0;
+			mBytes[mBytePosition++] = REPLACEMENT_BYTE;
+		}
+	}
+	
+	@Override
+	public void flush() throws IOException {
+		flushBytes();
+		if (mOutputStream != null) {
+			mOutputStream.flush();
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		flushBytes();
+		finish();
+		flush();
+		if (mOutputStream != null) {
+			mOutputStream.close();
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package com.kycq.library.json;
 
+import com.kycq.library.json.adapter.TypeAdapter;
+import com.kycq.library.json.adapter.TypeAdapterFactory;
 import com.kycq.library.json.bean.AdapterBean;
 import com.kycq.library.json.bean.ArrayIntegerBean;
 import com.kycq.library.json.bean.ArrayStringBean;
@@ -28,15 +30,21 @@ import com.kycq.library.json.bean.StringBufferBean;
 import com.kycq.library.json.bean.StringBuilderBean;
 import com.kycq.library.json.bean.URIBean;
 import com.kycq.library.json.bean.URLBean;
+import com.kycq.library.json.creator.InstanceCreator;
+import com.kycq.library.json.reflect.TypeToken;
+import com.kycq.library.json.stream.JsonReader;
+import com.kycq.library.json.stream.JsonWriter;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -630,4 +638,36 @@ public class BasicAdapterTest {
 		AdapterBean adapterBean = json.fromJson("{\"stringValue\":\"must null\"}", AdapterBean.class);
 		assertEquals(adapterBean.stringValue, null);
 	}
+	
+	@Test
+	public void testFactoryOrder() throws IOException {
+		final TypeAdapter<String> upperCaseAdapter = new TypeAdapter<String>() {
+			@Override
+			public String read(JsonReader jsonReader) throws JsonException {
+				return jsonReader.nextString().toUpperCase();
+			}
+			
+			@Override
+			public void write(JsonWriter jsonWriter, String value) throws JsonException {
+				jsonWriter.value(value.toUpperCase());
+			}
+		};
+		// 注册的工厂优先于内置的同类型工厂
+		Json rawTypeJson = new Json(Collections.singletonList(TypeAdapter.newFactory(String.class, upperCaseAdapter)),
+				Collections.<Type, InstanceCreator<?>>emptyMap());
+		assertEquals(rawTypeJson.fromJson("{\"stringValue\":\"a\"}", StringBean.class).stringValue, "A");
+		assertEquals(rawTypeJson.toJson(Collections.singletonList("b")), "[\"B\"]");
+		
+		TypeAdapterFactory factory = new TypeAdapterFactory() {
+			@SuppressWarnings("unchecked")
+			@Override
+			public <T> TypeAdapter<T> create(Json json, TypeToken<T> typeToken) {
+				return typeToken.getRawType() == String.class ? (TypeAdapter<T>) upperCaseAdapter : null;
+			}
+		};
+		Json predicateJson = new Json(Collections.singletonList(factory),
+				Collections.<Type, InstanceCreator<?>>emptyMap());
+		assertEquals(predicateJson.fromJson("{\"stringValue\":\"a\"}", StringBean.class).stringValue, "A");
+		assertEquals(predicateJson.fromJson("{\"intValue\":1}", IntegerBean.class).intValue, 1);
+	}
 }
@@ -1,15 +1,42 @@
 package com.kycq.library.json;
 
+import com.kycq.library.json.adapter.ReflectiveTypeAdapterFactory;
+import com.kycq.library.json.adapter.TypeAdapter;
 import com.kycq.library.json.bean.BooleanBean;
 import com.kycq.library.json.bean.ChildBean;
+import com.kycq.library.json.bean.ConstructorBean;
+import com.kycq.library.json.bean.EscapedNameBean;
+import com.kycq.library.json.bean.GeneratedBean;
+import com.kycq.library.json.bean.GeneratedChildBean;
+import com.kycq.library.json.bean.HiddenBean;
+import com.kycq.library.json.bean.HiddenParentBean;
+import com.kycq.library.json.bean.ParentBean;
+import com.kycq.library.json.bean.PrimitiveBean;
+import com.kycq.library.json.internal.FieldAccessor;
+import com.kycq.library.json.reflect.TypeToken;
+import com.kycq.library.json.stream.JsonWriter;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class BeanTest {
 	Json json;
@@ -27,6 +54,304 @@ public class BeanTest {
 		assertEquals(childBean.childValue, "child");
 	}
 	
+	@Test
+	public void testFieldName() throws IOException {
+		ChildBean childBean;
+		childBean = json.fromJson("{\"parent\\u0056alue\":\"parent\",'childValue':\"child\",\"unknown\":1}", ChildBean.class);
+		assertEquals(childBean.parentValue, "parent");
+		assertEquals(childBean.childValue, "child");
+		
+		childBean = json.fromJson("{parentValue:\"parent\",childValue:\"child\"}", ChildBean.class);
+		assertEquals(childBean.parentValue, "parent");
+		assertEquals(childBean.childValue, "child");
+		
+		// 键名跨越读取缓存区
+		StringBuilder builder = new StringBuilder("{");
+		for (int index = 0; index < 200; index++) {
+			builder.append("\"unknown").append(index).append("\":").append(index).append(',');
+		}
+		builder.append("\"parentValue\":\"parent\",\"childValue\":\"child\"}");
+		childBean = json.fromJson(new StringReader(builder.toString()), ChildBean.class);
+		assertEquals(childBean.parentValue, "parent");
+		assertEquals(childBean.childValue, "child");
+	}
+	
+	@Test
+	public void testFieldAccess() throws Exception {
+		PrimitiveBean primitiveBean = json.fromJson("{\"booleanValue\":true,\"byteValue\":1,"
+				+ "\"charValue\":\"c\",\"intValue\":3,\"longValue\":4,\"floatValue\":5.5,"
+				+ "\"doubleValue\":6.5,\"stringValue\":\"s\"}", PrimitiveBean.class);
+		assertEquals(primitiveBean.booleanValue, true);
+		assertEquals(primitiveBean.byteValue, 1);
+		assertEquals(primitiveBean.charValue, 'c');
+		assertEquals(primitiveBean.intValue, 3);
+		assertEquals(primitiveBean.longValue, 4);
+		assertEquals(primitiveBean.floatValue, 5.5f, 0);
+		assertEquals(primitiveBean.doubleValue, 6.5, 0);
+		assertEquals(primitiveBean.stringValue, "s");
+		
+		// 自引用字段不输出
+		primitiveBean.self = primitiveBean;
+		assertEquals(json.toJson(primitiveBean), "{\"booleanValue\":true,\"byteValue\":1,"
+				+ "\"charValue\":\"c\",\"intValue\":3,\"longValue\":4,\"floatValue\":5.5,"
+				+ "\"doubleValue\":6.5,\"stringValue\":\"s\"}");
+		
+		// 与反射一致，基本类型字段只接受可拓宽转换的值，不截断
+		FieldAccessor intAccessor = FieldAccessor.create(PrimitiveBean.class.getField("intValue"));
+		intAccessor.set(primitiveBean, (short) 7);
+		assertEquals(primitiveBean.intValue, 7);
+		intAccessor.set(primitiveBean, 'a');
+		assertEquals(primitiveBean.intValue, 'a');
+		for (Object value : new Object[]{1L << 32, 1.5, null, "8"}) {
+			try {
+				intAccessor.set(primitiveBean, value);
+				fail();
+			} catch (IllegalArgumentException ignored) {
+			}
+		}
+		assertEquals(primitiveBean.intValue, 'a');
+	}
+	
+	@Test
+	public void testUnsafeConstructor() throws IOException {
+		// 无无参构造方法时不调用构造方法分配对象
+		ConstructorBean constructorBean = json.fromJson("{\"value\":\"v\"}", ConstructorBean.class);
+		assertEquals(constructorBean.value, "v");
+		assertEquals(constructorBean.count, 0);
+		
+		constructorBean = json.fromJson("{\"count\":2}", ConstructorBean.class);
+		assertNull(constructorBean.value);
+		assertEquals(constructorBean.count, 2);
+	}
+	
+	@Test
+	public void testPrimitiveField() throws IOException {
+		PrimitiveBean primitiveBean = json.fromJson("{\"booleanValue\":\"TRUE\",\"intValue\":\"3\","
+				+ "\"longValue\":null,\"doubleValue\":\"6.5\",\"stringValue\":\"s\"}", PrimitiveBean.class);
+		assertEquals(primitiveBean.booleanValue, true);
+		assertEquals(primitiveBean.intValue, 3);
+		assertEquals(primitiveBean.longValue, 0);
+		assertEquals(primitiveBean.doubleValue, 6.5, 0);
+		
+		// 数值溢出时略过该值，继续读取
+		primitiveBean = json.fromJson("{\"intValue\":4294967296,\"longValue\":-9223372036854775808,"
+				+ "\"doubleValue\":1e300,\"stringValue\":\"s\"}", PrimitiveBean.class);
+		assertEquals(primitiveBean.intValue, 0);
+		assertEquals(primitiveBean.longValue, Long.MIN_VALUE);
+		assertEquals(primitiveBean.doubleValue, 1e300, 0);
+		assertEquals(primitiveBean.stringValue, "s");
+		
+		primitiveBean = new PrimitiveBean();
+		primitiveBean.intValue = Integer.MIN_VALUE;
+		primitiveBean.longValue = Long.MAX_VALUE;
+		primitiveBean.doubleValue = Double.NaN;
+		assertEquals(json.toJson(primitiveBean), "{\"booleanValue\":false,\"byteValue\":0,"
+				+ "\"charValue\":\"\\u0000\",\"intValue\":-2147483648,\"longValue\":9223372036854775807,"
+				+ "\"floatValue\":0.0,\"doubleValue\":NaN,\"stringValue\":null,\"self\":null}");
+	}
+	
+	@Test
+	public void testGeneratedAdapter() throws IOException {
+		assertTrue(json.getAdapter(GeneratedBean.class).getClass().getName().endsWith("GeneratedBean_JsonTypeAdapter"));
+		// 私有字段不生成，使用反射
+		assertTrue(json.getAdapter(GeneratedBean.PrivateBean.class).getClass().getName().endsWith("ReflectiveTypeAdapter"));
+		
+		GeneratedBean generatedBean = json.fromJson("{\"userName\":\"user\",\"count\":2,\"enable\":true,"
+				+ "\"values\":[1.5],\"stringList\":[\"a\"],\"children\":{\"child\":{\"name\":\"child\"}},"
+				+ "\"writeOnly\":\"w\",\"ignored\":\"i\",\"parentValue\":\"parent\",\"unknown\":1}", GeneratedBean.class);
+		assertEquals(generatedBean.name, "user");
+		assertEquals(generatedBean.getCount(), 2);
+		assertEquals(generatedBean.enable, true);
+		assertEquals(generatedBean.values[0], 1.5, 0);
+		assertEquals(generatedBean.stringList.get(0), "a");
+		assertEquals(generatedBean.children.get("child").name, "child");
+		assertNull(generatedBean.writeOnly);
+		assertNull(generatedBean.ignored);
+		assertEquals(generatedBean.parentValue, "parent");
+		
+		// 自引用字段不输出
+		generatedBean.self = generatedBean;
+		generatedBean.children = null;
+		generatedBean.writeOnly = "w";
+		generatedBean.ignored = "i";
+		assertEquals(json.toJson(generatedBean), "{\"name\":\"user\",\"userName\":\"user\",\"count\":2,\"enable\":true,"
+				+ "\"values\":[1.5],\"stringList\":[\"a\"],\"children\":null,\"writeOnly\":\"w\",\"adapterValue\":null,"
+				+ "\"parentValue\":\"parent\"}");
+	}
+	
+	@Test
+	public void testAlternateName() throws IOException {
+		GeneratedBean generatedBean = json.fromJson("{\"userName\":\"user\",\"count\":2}", GeneratedBean.class);
+		generatedBean.self = generatedBean;
+		
+		// 反射与生成的适配器输出一致，备用键名同样输出
+		TypeAdapter<GeneratedBean> reflectiveAdapter = new ReflectiveTypeAdapterFactory()
+				.create(json, TypeToken.get(GeneratedBean.class));
+		JsonWriter jsonWriter = new JsonWriter(false);
+		reflectiveAdapter.write(jsonWriter, generatedBean);
+		assertEquals(jsonWriter.getJsonString(), json.toJson(generatedBean));
+		assertEquals(jsonWriter.getJsonString(), "{\"name\":\"user\",\"userName\":\"user\",\"count\":2,\"enable\":false,"
+				+ "\"values\":null,\"stringList\":null,\"children\":null,\"writeOnly\":null,\"adapterValue\":null,"
+				+ "\"parentValue\":null}");
+	}
+	
+	@Test
+	public void testHiddenField() throws IOException {
+		assertTrue(json.getAdapter(HiddenBean.class).getClass().getName().endsWith("HiddenBean_JsonTypeAdapter"));
+		
+		HiddenBean hiddenBean = new HiddenBean();
+		hiddenBean.x = 1;
+		((HiddenParentBean) hiddenBean).x = 2;
+		TypeAdapter<HiddenBean> reflectiveAdapter = new ReflectiveTypeAdapterFactory()
+				.create(json, TypeToken.get(HiddenBean.class));
+		JsonWriter jsonWriter = new JsonWriter(false);
+		reflectiveAdapter.write(jsonWriter, hiddenBean);
+		assertEquals(jsonWriter.getJsonString(), "{\"x\":1,\"baseX\":2}");
+		assertEquals(json.toJson(hiddenBean), "{\"x\":1,\"baseX\":2}");
+		
+		hiddenBean = json.fromJson("{\"x\":5,\"baseX\":7}", HiddenBean.class);
+		assertEquals(hiddenBean.x, 5);
+		assertEquals(((HiddenParentBean) hiddenBean).x, 7);
+	}
+	
+	@Test
+	public void testEscapedName() throws IOException {
+		assertTrue(json.getAdapter(EscapedNameBean.class).getClass().getName().endsWith("EscapedNameBean_JsonTypeAdapter"));
+		
+		EscapedNameBean escapedNameBean = json.fromJson("{\"tab\\t\\u0001\\\"\\\\\u00e9\":\"value\"}", EscapedNameBean.class);
+		assertEquals(escapedNameBean.value, "value");
+		assertEquals(json.toJson(escapedNameBean), "{\"line\\nbreak\":\"value\",\"tab\\t\\u0001\\\"\\\\\u00e9\":\"value\"}");
+	}
+	
+	@Test
+	public void testJsonLog() throws IOException {
+		final List<String> logList = new ArrayList<>();
+		json.getJsonLog().setPrinter(new JsonLog.Printer() {
+			@Override
+			public void println(int level, String tag, String msg) {
+				logList.add(level + msg);
+			}
+		});
+		PrimitiveBean primitiveBean = json.fromJson("{\"intValue\":\"x\",\"self\":1}", PrimitiveBean.class);
+		assertEquals(primitiveBean.intValue, 0);
+		assertEquals(logList.size(), 2);
+		assertTrue(logList.get(0).startsWith(JsonLog.ERROR + "read "));
+		assertTrue(logList.get(1).startsWith(JsonLog.WARNING + "Expected a BEGIN_OBJECT"));
+		
+		// 只输出错误
+		logList.clear();
+		json.getJsonLog().setDebugLevel(JsonLog.ERROR);
+		json.fromJson("{\"intValue\":\"x\",\"self\":1}", PrimitiveBean.class);
+		assertEquals(logList.size(), 1);
+		
+		// 日志级别按Json实例配置
+		logList.clear();
+		json.getJsonLog().setDebugLevel(JsonLog.NONE);
+		json.fromJson("{\"intValue\":\"x\",\"self\":1}", PrimitiveBean.class);
+		new Json().getJsonLog().setDebugLevel(JsonLog.WARNING);
+		json.fromJson("{\"intValue\":\"x\",\"self\":1}", PrimitiveBean.class);
+		assertEquals(logList.size(), 0);
+	}
+	
+	@Test
+	public void testRuntimeType() throws IOException {
+		ChildBean childBean = new ChildBean();
+		childBean.parentValue = "parent";
+		childBean.childValue = "child";
+		ParentBean parentBean = new ParentBean();
+		parentBean.parentValue = "parent";
+		
+		// 按运行时类型输出子类字段
+		List<ParentBean> parentList = new ArrayList<>();
+		parentList.add(childBean);
+		parentList.add(parentBean);
+		parentList.add(childBean);
+		assertEquals(json.toJson(parentList), "[{\"childValue\":\"child\",\"parentValue\":\"parent\"},"
+				+ "{\"parentValue\":\"parent\"},{\"childValue\":\"child\",\"parentValue\":\"parent\"}]");
+		
+		// 声明类型使用生成的适配器时，未标记的子类仍按运行时类型输出
+		GeneratedChildBean generatedChildBean = new GeneratedChildBean();
+		generatedChildBean.childValue = "child";
+		generatedChildBean.name = "name";
+		generatedChildBean.self = generatedChildBean;
+		List<GeneratedBean> generatedList = new ArrayList<>();
+		generatedList.add(generatedChildBean);
+		JsonWriter jsonWriter = new JsonWriter(false);
+		json.getAdapter(new TypeToken<List<GeneratedBean>>() {
+		}).write(jsonWriter, generatedList);
+		assertEquals(jsonWriter.getJsonString(), "[{\"childValue\":\"child\",\"name\":\"name\",\"userName\":\"name\",\"count\":0,"
+				+ "\"enable\":false,\"values\":null,\"stringList\":null,\"children\":null,\"writeOnly\":null,"
+				+ "\"adapterValue\":null,\"parentValue\":null}]");
+		
+		// 运行时类型多于缓存数量
+		List<Object> objectList = new ArrayList<>();
+		for (int index = 0; index < 2; index++) {
+			objectList.add(index);
+			objectList.add("a");
+			objectList.add(true);
+			objectList.add(1.5);
+			objectList.add(2L);
+			objectList.add(parentBean);
+			objectList.add(null);
+		}
+		assertEquals(json.toJson(objectList), "[0,\"a\",true,1.5,2,{\"parentValue\":\"parent\"},null,"
+				+ "1,\"a\",true,1.5,2,{\"parentValue\":\"parent\"},null]");
+	}
+	
+	@Test
+	public void testAdapterCache() throws IOException {
+		// 按Class及TypeToken查找的适配器一致
+		assertSame(json.getAdapter(ChildBean.class), json.getAdapter(TypeToken.get(ChildBean.class)));
+		assertSame(json.getAdapter(ChildBean.class), json.getAdapter(ChildBean.class));
+		assertSame(json.getAdapter(TypeToken.get(String[].class)), json.getAdapter(String[].class));
+		assertSame(json.getAdapter(String[].class), json.getAdapter(String[].class));
+		
+		// 自引用类型创建时不缓存FutureTypeAdapter
+		assertSame(json.getAdapter(PrimitiveBean.class), json.getAdapter(TypeToken.get(PrimitiveBean.class)));
+		assertEquals(json.toJson(new String[]{"a"}), "[\"a\"]");
+	}
+	
+	@Test
+	public void testPrepare() throws Exception {
+		Type listType = new TypeToken<List<ChildBean>>() {
+		}.getType();
+		Map<Type, Long> elapsedMap = json.prepare(ChildBean.class, listType, ChildBean.class);
+		assertEquals(elapsedMap.keySet(), new LinkedHashSet<>(Arrays.asList(ChildBean.class, listType)));
+		assertTrue(elapsedMap.get(ChildBean.class) >= 0);
+		// 已创建的适配器直接复用
+		assertSame(json.getAdapter(ChildBean.class), json.getAdapter(TypeToken.get(ChildBean.class)));
+		
+		ExecutorService executorService = Executors.newFixedThreadPool(2);
+		try {
+			Json parallelJson = new Json();
+			// 重复的类型只创建一次
+			elapsedMap = parallelJson.prepareAll(Arrays.asList(PrimitiveBean.class, GeneratedBean.class, listType,
+					PrimitiveBean.class, ChildBean.class), executorService);
+			assertEquals(elapsedMap.keySet(), new LinkedHashSet<>(Arrays.asList(
+					PrimitiveBean.class, GeneratedBean.class, listType, ChildBean.class)));
+			// 并行创建后同一类型只有一个实例
+			assertSame(parallelJson.getAdapter(ChildBean.class), parallelJson.getAdapter(TypeToken.get(ChildBean.class)));
+			
+			final Json concurrentJson = new Json();
+			List<Callable<TypeAdapter<?>>> taskList = new ArrayList<>();
+			for (int index = 0; index < 8; index++) {
+				taskList.add(new Callable<TypeAdapter<?>>() {
+					@Override
+					public TypeAdapter<?> call() {
+						return concurrentJson.getAdapter(TypeToken.get(GeneratedBean.class));
+					}
+				});
+			}
+			for (Future<TypeAdapter<?>> future : executorService.invokeAll(taskList)) {
+				assertSame(future.get(), concurrentJson.getAdapter(GeneratedBean.class));
+			}
+			assertEquals(parallelJson.toJson(new ChildBean()), "{\"childValue\":null,\"parentValue\":null}");
+		} finally {
+			executorService.shutdown();
+		}
+		assertEquals(json.prepareAll(Arrays.asList(ParentBean.class), null).size(), 1);
+	}
+	
 	@Test
 	public void testToJson() throws IOException {
 		ArrayList<BooleanBean> list = new ArrayList<>();
@@ -0,0 +1,322 @@
+package com.kycq.library.json;
+
+import com.kycq.library.json.bean.StringBean;
+import com.kycq.library.json.stream.JsonFeedReader;
+import com.kycq.library.json.stream.JsonNameTable;
+import com.kycq.library.json.stream.JsonReader;
+import com.kycq.library.json.stream.JsonToken;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JsonReaderTest {
+	Json json;
+	
+	@Before
+	public void setUp() {
+		json = new Json();
+	}
+	
+	@Test
+	public void testUtf8Bytes() throws IOException {
+		String value = "ascii 中文 \ud83d\ude00 é";
+		byte[] bytes = ("{\"stringValue\":\"" + value + "\"}").getBytes("UTF-8");
+		
+		StringBean stringBean = json.fromJson(bytes, StringBean.class);
+		assertEquals(stringBean.stringValue, value);
+		
+		stringBean = json.fromJson(new ByteArrayInputStream(bytes), StringBean.class);
+		assertEquals(stringBean.stringValue, value);
+		
+		// 每次只读取一个字节，多字节字符被拆分
+		stringBean = json.fromJson(new SlowInputStream(bytes), StringBean.class);
+		assertEquals(stringBean.stringValue, value);
+	}
+	
+	@Test
+	public void testUtf8ByteOrderMark() throws IOException {
+		byte[] bytes = "\ufeff[1,2]".getBytes("UTF-8");
+		JsonReader jsonReader = new JsonReader(bytes);
+		jsonReader.beginArray();
+		assertEquals(jsonReader.nextInt(), 1);
+		assertEquals(jsonReader.nextInt(), 2);
+		jsonReader.endArray();
+	}
+	
+	@Test
+	public void testUtf8Malformed() throws IOException {
+		byte[] bytes = new byte[]{'"', (byte) 0xff, 'a', (byte) 0xe4, (byte) 0xb8, '"'};
+		JsonReader jsonReader = new JsonReader(bytes);
+		assertEquals(jsonReader.nextString(), "\ufffda\ufffd");
+	}
+	
+	@Test
+	public void testCharArray() throws IOException {
+		char[] chars = "xx[\"a\",true]xx".toCharArray();
+		JsonReader jsonReader = new JsonReader(chars, 2, chars.length - 4);
+		jsonReader.beginArray();
+		assertEquals(jsonReader.nextString(), "a");
+		assertEquals(jsonReader.nextBoolean(), true);
+		jsonReader.endArray();
+		assertEquals(new String(chars), "xx[\"a\",true]xx");
+	}
+	
+	@Test
+	public void testLargeDocument() throws IOException {
+		StringBuilder builder = new StringBuilder("[");
+		for (int index = 0; index < 1000; index++) {
+			if (index > 0) {
+				builder.append(',');
+			}
+			builder.append("{\"stringValue\":\"value").append(index).append("\"}");
+		}
+		builder.append(']');
+		String jsonStr = builder.toString();
+		
+		StringBean[] fromString = json.fromJson(jsonStr, StringBean[].class);
+		StringBean[] fromReader = json.fromJson(new StringReader(jsonStr), StringBean[].class);
+		assertEquals(fromString.length, 1000);
+		assertEquals(fromReader.length, 1000);
+		for (int index = 0; index < 1000; index++) {
+			assertEquals(fromString[index].stringValue, "value" + index);
+			assertEquals(fromReader[index].stringValue, "value" + index);
+		}
+	}
+	
+	@Test
+	public void testMappedFile() throws IOException {
+		File file = File.createTempFile("json", ".json");
+		try {
+			FileOutputStream outputStream = new FileOutputStream(file);
+			outputStream.write("{\"stringValue\":\"中文\"}".getBytes("UTF-8"));
+			outputStream.close();
+			
+			StringBean stringBean = json.fromJson(file, StringBean.class);
+			assertEquals(stringBean.stringValue, "中文");
+		} finally {
+			file.delete();
+		}
+	}
+	
+	@Test
+	public void testNumber() throws IOException {
+		JsonReader jsonReader = new JsonReader("[9007199254740993,-9223372036854775808,9223372036854775808,-0,-12,1.5e2,0.1,\"2.5\"]");
+		jsonReader.beginArray();
+		assertEquals(jsonReader.nextLong(), 9007199254740993L);
+		assertEquals(jsonReader.nextLong(), Long.MIN_VALUE);
+		assertEquals(jsonReader.nextDouble(), 9223372036854775808d, 0);
+		assertEquals(jsonReader.nextString(), "-0");
+		assertEquals(jsonReader.nextInt(), -12);
+		assertEquals(jsonReader.nextInt(), 150);
+		assertEquals(jsonReader.nextDouble(), 0.1, 0);
+		assertEquals(jsonReader.nextDouble(), 2.5, 0);
+		jsonReader.endArray();
+	}
+	
+	@Test
+	public void testKeyword() throws IOException {
+		JsonReader jsonReader = new JsonReader("[true,FALSE,True,null]");
+		jsonReader.beginArray();
+		assertEquals(jsonReader.nextBoolean(), true);
+		assertEquals(jsonReader.nextBoolean(), false);
+		assertEquals(jsonReader.nextString(), "True");
+		jsonReader.nextNull();
+		jsonReader.endArray();
+	}
+	
+	@Test
+	public void testExpectedName() throws IOException {
+		JsonNameTable nameTable = new JsonNameTable("a", "b", "c", "a");
+		JsonReader jsonReader = new JsonReader("{\"a\":1,\"c\":2,\"a\":3,\"d\":4,\"b\\u0000\":5}");
+		jsonReader.beginObject();
+		// 预测命中
+		assertEquals(jsonReader.nextName(nameTable, 0), 0);
+		jsonReader.skipValue();
+		// 预测未命中时查找
+		assertEquals(jsonReader.nextName(nameTable, 1), 2);
+		jsonReader.skipValue();
+		// 重复键名以第一个为准
+		assertEquals(jsonReader.nextName(nameTable, 3), 0);
+		jsonReader.skipValue();
+		assertEquals(jsonReader.nextName(nameTable, 4), -1);
+		// 未找到的键名仍显示在路径中
+		assertTrue(jsonReader.getCurrentPath().endsWith("$.d"));
+		jsonReader.skipValue();
+		assertEquals(jsonReader.nextName(nameTable, 1), -1);
+		assertTrue(jsonReader.getCurrentPath().endsWith("$.b\u0000"));
+		jsonReader.skipValue();
+		jsonReader.endObject();
+		
+		// 读取值时缓存区被覆盖，键名已提前保存
+		StringBuilder builder = new StringBuilder("{\"unknown\":\"");
+		for (int index = 0; index < 10000; index++) {
+			builder.append('x');
+		}
+		builder.append("\"}");
+		jsonReader = new JsonReader(new StringReader(builder.toString()));
+		jsonReader.beginObject();
+		assertEquals(jsonReader.nextName(nameTable), -1);
+		assertEquals(jsonReader.nextString().length(), 10000);
+		assertTrue(jsonReader.getCurrentPath().endsWith("$.unknown"));
+		jsonReader.endObject();
+	}
+	
+	@Test
+	public void testSkipValue() throws IOException {
+		StringBuilder builder = new StringBuilder("{\"skip\":[");
+		for (int index = 0; index < 200; index++) {
+			builder.append("{\"a\":\"]}\\\"\\\\\",'b':'\"}',/* ] */\"c\":[1,true,null]# }\n},");
+		}
+		builder.append("{}],\"stringValue\":\"value\",\"other\":{\"d\":[]}}");
+		String jsonStr = builder.toString();
+		
+		StringBean stringBean = json.fromJson(jsonStr, StringBean.class);
+		assertEquals(stringBean.stringValue, "value");
+		
+		stringBean = json.fromJson(new StringReader(jsonStr), StringBean.class);
+		assertEquals(stringBean.stringValue, "value");
+		
+		JsonReader jsonReader = new JsonReader("[[1,[2]],3]");
+		jsonReader.beginArray();
+		jsonReader.skipValue();
+		assertEquals(jsonReader.nextInt(), 3);
+		jsonReader.endArray();
+	}
+	
+	@Test
+	public void testFeedReader() throws IOException {
+		StringBuilder builder = new StringBuilder();
+		for (int index = 0; index < 3000; index++) {
+			builder.append((char) ('a' + index % 26));
+		}
+		String longValue = builder.toString();
+		byte[] bytes = ("\ufeff{\"name\":\"中文\ud83d\ude00\",\"skip\":{\"a\":[1,\"]\"]},\"long\":\""
+				+ longValue + "\",\"values\":[true,null,-1.5e3,42]}").getBytes("UTF-8");
+		
+		// 每次只写入一个字节
+		JsonFeedReader feedReader = new JsonFeedReader();
+		int position = 0;
+		StringBuilder result = new StringBuilder();
+		boolean skip = false;
+		while (true) {
+			JsonToken token = feedReader.peek();
+			if (token == JsonToken.NEED_MORE_INPUT) {
+				if (position < bytes.length) {
+					feedReader.feed(bytes, position++, 1);
+				} else {
+					feedReader.endOfInput();
+				}
+				continue;
+			}
+			if (token == JsonToken.END_DOCUMENT) {
+				break;
+			}
+			if (skip) {
+				feedReader.skipValue();
+				skip = false;
+				continue;
+			}
+			switch (token) {
+				case BEGIN_OBJECT:
+					feedReader.beginObject();
+					break;
+				case END_OBJECT:
+					feedReader.endObject();
+					break;
+				case BEGIN_ARRAY:
+					feedReader.beginArray();
+					break;
+				case END_ARRAY:
+					feedReader.endArray();
+					break;
+				case NAME:
+					String name = feedReader.nextName();
+					result.append(name).append(':');
+					skip = name.equals("skip");
+					break;
+				case BOOLEAN:
+					result.append(feedReader.nextBoolean()).append(',');
+					break;
+				case NULL:
+					feedReader.nextNull();
+					result.append("null,");
+					break;
+				case NUMBER:
+					result.append(feedReader.nextDouble()).append(',');
+					break;
+				default:
+					result.append(feedReader.nextString()).append(',');
+					break;
+			}
+		}
+		assertEquals(result.toString(), "name:中文\ud83d\ude00,skip:long:" + longValue + ",values:true,null,-1500.0,42.0,");
+		assertEquals(position, bytes.length);
+	}
+	
+	@Test
+	public void testReset() throws IOException {
+		JsonReader jsonReader = new JsonReader("[1,[2");
+		jsonReader.beginArray();
+		assertEquals(jsonReader.nextInt(), 1);
+		jsonReader.beginArray();
+		
+		jsonReader.reset("{\"a\":true}");
+		jsonReader.beginObject();
+		assertEquals(jsonReader.nextName(), "a");
+		assertEquals(jsonReader.nextBoolean(), true);
+		jsonReader.endObject();
+		
+		jsonReader.reset(new StringReader("\"b\""));
+		assertEquals(jsonReader.nextString(), "b");
+		
+		// 字节数据与字节读取流交替重置，复用同一UTF-8读取流
+		jsonReader.reset("[\"中\",1]".getBytes("UTF-8"));
+		jsonReader.beginArray();
+		assertEquals(jsonReader.nextString(), "中");
+		jsonReader.reset(new SlowInputStream("\"文\"".getBytes("UTF-8")));
+		assertEquals(jsonReader.nextString(), "文");
+		jsonReader.reset("2".getBytes("UTF-8"));
+		assertEquals(jsonReader.nextInt(), 2);
+		jsonReader.reset(new ByteArrayInputStream("3".getBytes("UTF-8")));
+		assertEquals(jsonReader.nextInt(), 3);
+		
+		StringBean stringBean = json.fromJson("{\"stringValue\":\"x\"}", StringBean.class);
+		assertEquals(stringBean.stringValue, "x");
+		stringBean = json.fromJson("{\"stringValue\":\"y\"}", StringBean.class);
+		assertEquals(stringBean.stringValue, "y");
+		assertEquals(json.toJson(stringBean), json.toJson(stringBean));
+	}
+	
+	private static class SlowInputStream extends InputStream {
+		private final byte[] bytes;
+		private int position;
+		
+		SlowInputStream(byte[] bytes) {
+			this.bytes = bytes;
+		}
+		
+		@Override
+		public int read() throws IOException {
+			return position < bytes.length ? bytes[position++] & 0xff : -1;
+		}
+		
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			if (position == bytes.length) {
+				return -1;
+			}
+			buffer[offset] = bytes[position++];
+			return 1;
+		}
+	}
+}
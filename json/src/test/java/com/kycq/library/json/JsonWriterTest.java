@@ -0,0 +1,161 @@
+package com.kycq.library.json;
+
+import com.kycq.library.json.stream.JsonEncodedName;
+import com.kycq.library.json.stream.JsonWriter;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class JsonWriterTest {
+	@Test
+	public void testWriter() throws IOException {
+		StringBuilder builder = new StringBuilder();
+		for (int index = 0; index < 3000; index++) {
+			builder.append((char) ('a' + index % 26));
+		}
+		String longValue = builder.toString();
+		
+		// 顶层值结束时自动输出缓存区，无需调用flush
+		StringWriter stringWriter = new StringWriter();
+		JsonWriter jsonWriter = new JsonWriter(stringWriter, false);
+		jsonWriter.beginArray();
+		for (int index = 0; index < 100; index++) {
+			jsonWriter.value(index);
+		}
+		jsonWriter.value(longValue);
+		jsonWriter.endArray();
+		
+		JsonWriter bufferWriter = new JsonWriter(false);
+		bufferWriter.beginArray();
+		for (int index = 0; index < 100; index++) {
+			bufferWriter.value(index);
+		}
+		bufferWriter.value(longValue);
+		bufferWriter.endArray();
+		
+		assertEquals(stringWriter.toString(), bufferWriter.getJsonString());
+		assertEquals(bufferWriter.getJsonString().length(), 100 + 190 + 3002 + 2);
+		
+		bufferWriter.reset();
+		bufferWriter.value("a");
+		assertEquals(bufferWriter.getJsonString(), "\"a\"");
+	}
+	
+	@Test
+	public void testIndent() throws IOException {
+		JsonWriter jsonWriter = new JsonWriter();
+		jsonWriter.setIndent("\t");
+		jsonWriter.beginObject();
+		jsonWriter.name("a").beginArray().value(1).beginArray().endArray().endArray();
+		jsonWriter.endObject();
+		assertEquals(jsonWriter.getJsonString(), "{\n\t\"a\":[\n\t\t1,\n\t\t[]\n\t]\n}");
+		
+		Json json = new Json();
+		int[] values = new int[]{1, 2};
+		assertEquals(json.toJson(values), "[1,2]");
+		json.setIndent("  ");
+		assertEquals(json.toJson(values), "[\n  1,\n  2\n]");
+		
+		// 设置时即检查缩进字符串
+		try {
+			json.setIndent("--");
+			fail();
+		} catch (IllegalArgumentException ignored) {
+		}
+		assertEquals(json.toJson(values), "[\n  1,\n  2\n]");
+	}
+	
+	@Test
+	public void testUtf8Output() throws IOException {
+		StringBuilder builder = new StringBuilder();
+		for (int index = 0; index < 5000; index++) {
+			builder.append(index % 3 == 0 ? "中" : index % 3 == 1 ? "a\ud83d\ude00" : "é");
+		}
+		String value = builder.toString();
+		byte[] expected = ("\"" + value + "\"").getBytes("UTF-8");
+		
+		Json json = new Json();
+		assertArrayEquals(json.toJsonBytes(value), expected);
+		
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		json.toJson(value, outputStream);
+		assertArrayEquals(outputStream.toByteArray(), expected);
+		
+		outputStream = new ByteArrayOutputStream();
+		JsonWriter jsonWriter = new JsonWriter(outputStream);
+		jsonWriter.value(value);
+		assertArrayEquals(outputStream.toByteArray(), expected);
+	}
+	
+	@Test
+	public void testRawName() throws IOException {
+		JsonEncodedName name = new JsonEncodedName("name");
+		JsonEncodedName escapedName = new JsonEncodedName("a<b");
+		
+		JsonWriter jsonWriter = new JsonWriter(false);
+		jsonWriter.beginObject();
+		jsonWriter.rawName(name).value(1);
+		jsonWriter.rawName(escapedName).value(2);
+		jsonWriter.rawName(name).value(3);
+		jsonWriter.endObject();
+		assertEquals(jsonWriter.getJsonString(), "{\"name\":1,\"a\\u003cb\":2,\"name\":3}");
+		
+		jsonWriter = new JsonWriter(true);
+		jsonWriter.beginObject();
+		jsonWriter.rawName(name).value(1);
+		jsonWriter.rawName(name).value(2);
+		jsonWriter.endObject();
+		assertEquals(jsonWriter.getJsonString(), "{\n  \"name\":1,\n  \"name\":2\n}");
+	}
+	
+	@Test
+	public void testEscapeMode() throws IOException {
+		String value = "a<\"\n中\u2028\ud83d\ude00";
+		
+		JsonWriter jsonWriter = new JsonWriter(false);
+		jsonWriter.value(value);
+		assertEquals(jsonWriter.getJsonString(), "\"a\\u003c\\\"\\n中\\u2028\ud83d\ude00\"");
+		
+		jsonWriter = new JsonWriter(false);
+		jsonWriter.setEscapeMode(JsonWriter.ESCAPE_STRICT);
+		jsonWriter.value(value);
+		assertEquals(jsonWriter.getJsonString(), "\"a<\\\"\\n中\u2028\ud83d\ude00\"");
+		
+		jsonWriter = new JsonWriter(false);
+		jsonWriter.setEscapeMode(JsonWriter.ESCAPE_ASCII);
+		jsonWriter.value(value);
+		assertEquals(jsonWriter.getJsonString(), "\"a<\\\"\\n\\u4e2d\\u2028\\ud83d\\ude00\"");
+		
+		// 超出缓存区大小的字符串逐段转义输出
+		StringBuilder builder = new StringBuilder();
+		for (int index = 0; index < 2000; index++) {
+			builder.append(index % 100 == 0 ? '\n' : 'a');
+		}
+		StringWriter stringWriter = new StringWriter();
+		jsonWriter = new JsonWriter(stringWriter, false);
+		jsonWriter.value(builder.toString());
+		assertEquals(stringWriter.toString(), "\"" + builder.toString().replace("\n", "\\n") + "\"");
+	}
+	
+	@Test
+	public void testNumber() throws IOException {
+		JsonWriter jsonWriter = new JsonWriter(false);
+		jsonWriter.beginArray();
+		jsonWriter.value(0).value(-7).value(Long.MAX_VALUE).value(Long.MIN_VALUE);
+		jsonWriter.value(0.0).value(-0.0).value(1.5).value(100.0).value(0.001).value(1.0E7).value(1.0E-4);
+		jsonWriter.value(1.0E23).value(Double.MIN_VALUE).value(Double.MAX_VALUE);
+		jsonWriter.value(Integer.valueOf(12)).value(Double.valueOf(0.1)).value(Float.valueOf(0.1f));
+		jsonWriter.endArray();
+		assertEquals(jsonWriter.getJsonString(), "[0,-7,9223372036854775807,-9223372036854775808,"
+				+ "0.0,-0.0,1.5,100.0,0.001,1.0E7,1.0E-4,"
+				+ "1.0E23,4.9E-324,1.7976931348623157E308,"
+				+ "12,0.1,0.1]");
+	}
+}
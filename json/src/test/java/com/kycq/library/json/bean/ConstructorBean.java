@@ -0,0 +1,10 @@
+package com.kycq.library.json.bean;
+
+public class ConstructorBean {
+	public String value;
+	public int count = 1;
+	
+	public ConstructorBean(String value) {
+		this.value = value;
+	}
+}
@@ -0,0 +1,10 @@
+package com.kycq.library.json.bean;
+
+import com.kycq.library.json.annotation.JsonBean;
+import com.kycq.library.json.annotation.JsonName;
+
+@JsonBean
+public class EscapedNameBean {
+	@JsonName(value = "line\nbreak", alternate = {"tab\t\u0001\"\\é"})
+	public String value;
+}
@@ -0,0 +1,36 @@
+package com.kycq.library.json.bean;
+
+import com.kycq.library.json.annotation.JsonAdapter;
+import com.kycq.library.json.annotation.JsonBean;
+import com.kycq.library.json.annotation.JsonIgnore;
+import com.kycq.library.json.annotation.JsonName;
+
+import java.util.List;
+import java.util.Map;
+
+@JsonBean
+public class GeneratedBean extends ParentBean {
+	@JsonName(value = "name", alternate = {"userName"})
+	public String name;
+	int count;
+	public boolean enable;
+	public double[] values;
+	public List<String> stringList;
+	public Map<String, GeneratedBean> children;
+	@JsonIgnore(serialize = true)
+	public String writeOnly;
+	@JsonIgnore
+	public String ignored;
+	@JsonAdapter(TestAdapter.class)
+	public String adapterValue;
+	public GeneratedBean self;
+	
+	public int getCount() {
+		return count;
+	}
+	
+	@JsonBean
+	public static class PrivateBean {
+		private String value;
+	}
+}
@@ -0,0 +1,5 @@
+package com.kycq.library.json.bean;
+
+public class GeneratedChildBean extends GeneratedBean {
+	public String childValue;
+}
@@ -0,0 +1,8 @@
+package com.kycq.library.json.bean;
+
+import com.kycq.library.json.annotation.JsonBean;
+
+@JsonBean
+public class HiddenBean extends HiddenParentBean {
+	public int x;
+}
@@ -0,0 +1,8 @@
+package com.kycq.library.json.bean;
+
+import com.kycq.library.json.annotation.JsonName;
+
+public class HiddenParentBean {
+	@JsonName("baseX")
+	public int x;
+}
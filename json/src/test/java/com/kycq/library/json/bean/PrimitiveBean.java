@@ -0,0 +1,13 @@
+package com.kycq.library.json.bean;
+
+public class PrimitiveBean {
+	public boolean booleanValue;
+	public byte byteValue;
+	public char charValue;
+	public int intValue;
+	public long longValue;
+	public float floatValue;
+	public double doubleValue;
+	public String stringValue;
+	public PrimitiveBean self;
+}